@@ -0,0 +1,164 @@
+/*
+ * AccountDeduplicator.java - Deduplicação das contas antes do banco
+ *
+ * Uma instância por execução do import, compartilhada por ITAU e OPF:
+ *  - Repetição exata (mesma conta, fonte, usuário, detalhe e consentimento)
+ *    é descartada na leitura, sem gerar upserts
+ *  - Repetição com conteúdo diferente é mantida e contada: o upsert mais
+ *    recente prevalece (last-writer-wins em detalhe/consentimento). Dentro
+ *    de um lote, colapsar() deixa só a última ocorrência de cada (conta,
+ *    usuário); entre lotes, o filtro informa a posição da ocorrência
+ *    anterior (aguardarAte) e o lote só roda depois que os lotes até essa
+ *    posição terminaram (ParallelLotProcessor)
+ *  - A mesma conta em ITAU e OPF nunca é descartada (o OPF grava o
+ *    consentimento), apenas contada como repetida
+ *
+ * Não é thread-safe: o filtro é consumido pela thread que monta os lotes.
+ */
+
+package com.example.batchimport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+public class AccountDeduplicator {
+
+    private final AccountIdTable contas;
+    private long descartadas;
+    private long repetidasMantidas;
+    private int proximaPosicao;
+
+    AccountDeduplicator(int capacidadeInicial) {
+        this.contas = new AccountIdTable(capacidadeInicial);
+    }
+
+    /**
+     * Filtra a entrada da fonte, descartando as repetições exatas. As fontes
+     * são filtradas uma depois da outra, na ordem em que são importadas.
+     */
+    Filtro filtrar(Iterator<ImportContasBatchService.AccountDTO> entrada, String tipo) {
+        return new Filtro(entrada, tipo);
+    }
+
+    /**
+     * Entrada deduplicada de uma fonte; as posições são as dos itens
+     * devolvidos, as mesmas do LotIterator.
+     */
+    final class Filtro implements Iterator<ImportContasBatchService.AccountDTO> {
+
+        private final Iterator<ImportContasBatchService.AccountDTO> entrada;
+        private final String tipo;
+        private final int inicioFonte = proximaPosicao;
+        // Repetições mantidas ainda não vistas por aguardarAte
+        private final Deque<Repeticao> repeticoes = new ArrayDeque<>();
+        private ImportContasBatchService.AccountDTO proxima;
+
+        private Filtro(Iterator<ImportContasBatchService.AccountDTO> entrada, String tipo) {
+            this.entrada = entrada;
+            this.tipo = tipo;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (proxima == null && entrada.hasNext()) {
+                ImportContasBatchService.AccountDTO conta = entrada.next();
+                if (proximaPosicao == Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Import com mais de " + Integer.MAX_VALUE + " contas");
+                }
+                switch (contas.registrar(conta.codIdtConta(), impressao(conta, tipo), proximaPosicao)) {
+                    case IGUAL -> descartadas++;
+                    case DIFERENTE -> {
+                        repetidasMantidas++;
+                        // Ocorrência de uma fonte anterior já foi efetivada
+                        if (contas.posicaoAnterior() >= inicioFonte) {
+                            repeticoes.add(new Repeticao(proximaPosicao - inicioFonte, contas.posicaoAnterior() - inicioFonte));
+                        }
+                        proxima = conta;
+                    }
+                    case NOVO -> proxima = conta;
+                }
+                if (proxima != null) {
+                    proximaPosicao++;
+                }
+            }
+            return proxima != null;
+        }
+
+        @Override
+        public ImportContasBatchService.AccountDTO next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            ImportContasBatchService.AccountDTO conta = proxima;
+            proxima = null;
+            return conta;
+        }
+
+        /**
+         * Maior posição anterior a {@code inicio} em que está uma ocorrência
+         * anterior de alguma conta das posições [inicio, fim), ou -1. Chamado
+         * em ordem, uma vez por faixa lida (lote ou faixa pulada).
+         */
+        long aguardarAte(long inicio, long fim) {
+            long ate = -1;
+            while (!repeticoes.isEmpty() && repeticoes.peekFirst().posicao() < fim) {
+                long anterior = repeticoes.pollFirst().anterior();
+                if (anterior < inicio) {
+                    ate = Math.max(ate, anterior);
+                }
+            }
+            return ate;
+        }
+    }
+
+    /**
+     * Deixa no lote só a última ocorrência de cada par (conta, usuário),
+     * na posição da primeira.
+     */
+    static List<ImportContasBatchService.AccountDTO> colapsar(List<ImportContasBatchService.AccountDTO> lote) {
+        Map<ChaveContaUsuario, ImportContasBatchService.AccountDTO> ultimas = new LinkedHashMap<>(lote.size() * 2);
+        for (ImportContasBatchService.AccountDTO conta : lote) {
+            ultimas.put(new ChaveContaUsuario(conta.codIdtConta(), conta.usuarioId()), conta);
+        }
+        return ultimas.size() == lote.size() ? lote : new ArrayList<>(ultimas.values());
+    }
+
+    Resumo resumo() {
+        return new Resumo(contas.tamanho(), descartadas, repetidasMantidas, contas.bytesAlocados());
+    }
+
+    /**
+     * Hash de 64 bits do registro, id incluído: o conteúdo entra antes do id,
+     * então a impressão não colide junto com a chave (hash só do id) da tabela.
+     */
+    static long impressao(ImportContasBatchService.AccountDTO conta, String tipo) {
+        long h = AccountIdTable.acumular(AccountIdTable.FNV_INICIAL, tipo);
+        h = AccountIdTable.acumular(h, Objects.toString(conta.usuarioId(), null));
+        if (conta.detalhe() != null) {
+            h = AccountIdTable.acumular(h, conta.detalhe().campo1());
+            h = AccountIdTable.acumular(h, conta.detalhe().campo2());
+        } else {
+            h = AccountIdTable.acumular(h, null);
+        }
+        h = AccountIdTable.acumular(h, conta.consent() != null ? conta.consent().payload() : null);
+        h = AccountIdTable.acumular(h, conta.codIdtConta());
+        return AccountIdTable.finalizar(h);
+    }
+
+    private record ChaveContaUsuario(String codIdtConta, Long usuarioId) {}
+
+    private record Repeticao(long posicao, long anterior) {}
+
+    /**
+     * @param contasDistintas   ids distintos vistos na execução
+     * @param descartadas       repetições exatas que não foram ao banco
+     * @param repetidasMantidas repetições com conteúdo ou fonte diferente
+     * @param bytesTabela       memória da tabela de ids
+     */
+    public record Resumo(long contasDistintas, long descartadas, long repetidasMantidas, long bytesTabela) {}
+}
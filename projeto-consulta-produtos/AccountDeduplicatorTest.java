@@ -0,0 +1,114 @@
+/*
+ * AccountDeduplicatorTest.java - Descarte de repetições exatas e ordem das
+ * repetições mantidas
+ */
+
+package com.example.batchimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountDeduplicatorTest {
+
+    @Test
+    void filtrar_DeveDescartarSoRepeticoesExatas_QuandoContaRepetida() {
+        // Given
+        AccountDeduplicator deduplicacao = new AccountDeduplicator(16);
+        List<ImportContasBatchService.AccountDTO> entrada = List.of(
+                conta("c1", 1L, "a"),
+                conta("c1", 1L, "a"),
+                conta("c1", 1L, "b"),
+                conta("c2", 1L, "a"));
+
+        // When
+        List<ImportContasBatchService.AccountDTO> filtradas = lista(deduplicacao.filtrar(entrada.iterator(), "ITAU"));
+
+        // Then
+        assertEquals(List.of(entrada.get(0), entrada.get(2), entrada.get(3)), filtradas);
+        assertEquals(new AccountDeduplicator.Resumo(2, 1, 1, deduplicacao.resumo().bytesTabela()), deduplicacao.resumo());
+    }
+
+    @Test
+    void filtrar_DeveManterContasDistintas_QuandoConteudoIgual() {
+        // Given
+        AccountDeduplicator deduplicacao = new AccountDeduplicator(16);
+        List<ImportContasBatchService.AccountDTO> entrada = List.of(
+                new ImportContasBatchService.AccountDTO("c1", 7L, null, null),
+                new ImportContasBatchService.AccountDTO("c2", 7L, null, null));
+
+        // When
+        List<ImportContasBatchService.AccountDTO> filtradas = lista(deduplicacao.filtrar(entrada.iterator(), "ITAU"));
+
+        // Then
+        assertEquals(entrada, filtradas);
+        assertEquals(0, deduplicacao.resumo().descartadas());
+    }
+
+    @Test
+    void impressao_DeveDiferir_QuandoSoOIdMuda() {
+        // When
+        long c1 = AccountDeduplicator.impressao(new ImportContasBatchService.AccountDTO("c1", 7L, null, null), "ITAU");
+        long c2 = AccountDeduplicator.impressao(new ImportContasBatchService.AccountDTO("c2", 7L, null, null), "ITAU");
+
+        // Then
+        assertNotEquals(c1, c2);
+    }
+
+    @Test
+    void aguardarAte_DeveApontarAOcorrenciaAnterior_QuandoRepeticaoEmOutroLote() {
+        // Given
+        AccountDeduplicator deduplicacao = new AccountDeduplicator(16);
+        AccountDeduplicator.Filtro filtro = deduplicacao.filtrar(List.of(
+                conta("c1", 1L, "a"),
+                conta("c2", 1L, "a"),
+                conta("c3", 1L, "a"),
+                conta("c1", 1L, "b"),
+                conta("c3", 1L, "b")).iterator(), "ITAU");
+        LotIterator<ImportContasBatchService.AccountDTO> lotes =
+                new LotIterator<>("ITAU", filtro, () -> 2, List.of(), filtro::aguardarAte);
+
+        // When
+        List<Long> aguardar = new ArrayList<>();
+        lotes.forEachRemaining(lote -> aguardar.add(lote.aguardarAte()));
+
+        // Then: lotes [c1, c2] [c3, c1] [c3]; o segundo aguarda o c1 da posição 0
+        // e o terceiro o c3 da posição 2
+        assertEquals(List.of(-1L, 0L, 2L), aguardar);
+    }
+
+    @Test
+    void aguardarAte_NaoDeveAguardar_QuandoOcorrenciaAnteriorEmOutraFonte() {
+        // Given
+        AccountDeduplicator deduplicacao = new AccountDeduplicator(16);
+        lista(deduplicacao.filtrar(List.of(conta("c1", 1L, "a")).iterator(), "ITAU"));
+        AccountDeduplicator.Filtro opf = deduplicacao.filtrar(List.of(
+                conta("c2", 1L, "a"),
+                conta("c1", 1L, "a")).iterator(), "OPF");
+        LotIterator<ImportContasBatchService.AccountDTO> lotes =
+                new LotIterator<>("OPF", opf, () -> 1, List.of(), opf::aguardarAte);
+
+        // When
+        List<Long> aguardar = new ArrayList<>();
+        lotes.forEachRemaining(lote -> aguardar.add(lote.aguardarAte()));
+
+        // Then
+        assertEquals(List.of(-1L, -1L), aguardar);
+        assertEquals(1, deduplicacao.resumo().repetidasMantidas());
+    }
+
+    private static ImportContasBatchService.AccountDTO conta(String id, Long usuarioId, String campo1) {
+        return new ImportContasBatchService.AccountDTO(id, usuarioId,
+                new ImportContasBatchService.DetalheDTO(campo1, null), null);
+    }
+
+    private static <T> List<T> lista(Iterator<T> iterator) {
+        List<T> itens = new ArrayList<>();
+        iterator.forEachRemaining(itens::add);
+        return itens;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * AccountIdTable.java - Tabela de ids de conta em arrays primitivos
+ *
+ * Endereçamento aberto com sondagem linear: cada id ocupa dois longs (hash
+ * de 64 bits do cod_idt_conta e impressão de 64 bits do registro) e um int
+ * (posição da última ocorrência mantida na entrada), sem objetos por
+ * entrada; ~29 bytes por id com ocupação de até 70%.
+ * Colisões de 64 bits entre ids distintos são tratadas como o mesmo id; a
+ * impressão inclui o próprio id, então uma conta só é descartada como
+ * repetição se as duas hashes de 64 bits coincidirem.
+ */
+
+package com.example.batchimport;
+
+final class AccountIdTable {
+
+    enum Resultado {
+        /** Id ainda não visto. */
+        NOVO,
+        /** Id já visto com a mesma impressão. */
+        IGUAL,
+        /** Id já visto com outra impressão, que passa a valer; ver posicaoAnterior(). */
+        DIFERENTE
+    }
+
+    private static final long VAZIO = 0L;
+    private static final int CAPACIDADE_MAXIMA = 1 << 30;
+    private static final double OCUPACAO_MAXIMA = 0.7;
+    static final long FNV_INICIAL = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    private long[] chaves;
+    private long[] impressoes;
+    private int[] posicoes;
+    private int tamanho;
+    private int posicaoAnterior = -1;
+    private int limiteRedimensionamento;
+
+    AccountIdTable(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(16, Math.min(capacidadeInicial, CAPACIDADE_MAXIMA)) - 1) << 1;
+        alocar(capacidade);
+    }
+
+    /**
+     * Registra o id com a impressão informada. Em NOVO e DIFERENTE a posição
+     * passa a ser a da última ocorrência do id; em IGUAL é mantida.
+     */
+    Resultado registrar(String id, long impressao, int posicao) {
+        long chave = hash(id);
+        int mascara = chaves.length - 1;
+        int slot = (int) chave & mascara;
+        while (true) {
+            long atual = chaves[slot];
+            if (atual == VAZIO) {
+                chaves[slot] = chave;
+                impressoes[slot] = impressao;
+                posicoes[slot] = posicao;
+                if (++tamanho > limiteRedimensionamento) {
+                    redimensionar();
+                }
+                return Resultado.NOVO;
+            }
+            if (atual == chave) {
+                if (impressoes[slot] == impressao) {
+                    return Resultado.IGUAL;
+                }
+                impressoes[slot] = impressao;
+                posicaoAnterior = posicoes[slot];
+                posicoes[slot] = posicao;
+                return Resultado.DIFERENTE;
+            }
+            slot = (slot + 1) & mascara;
+        }
+    }
+
+    /**
+     * Posição da ocorrência anterior do id no último registrar() que
+     * devolveu DIFERENTE.
+     */
+    int posicaoAnterior() {
+        return posicaoAnterior;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    long bytesAlocados() {
+        return (long) chaves.length * (2 * Long.BYTES + Integer.BYTES);
+    }
+
+    private void redimensionar() {
+        if (chaves.length >= CAPACIDADE_MAXIMA) {
+            throw new IllegalStateException("Tabela de ids de conta no limite de " + CAPACIDADE_MAXIMA + " posições");
+        }
+        long[] chavesAntigas = chaves;
+        long[] impressoesAntigas = impressoes;
+        int[] posicoesAntigas = posicoes;
+        alocar(chaves.length << 1);
+
+        int mascara = chaves.length - 1;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            long chave = chavesAntigas[i];
+            if (chave == VAZIO) continue;
+            int posicao = (int) chave & mascara;
+            while (chaves[posicao] != VAZIO) {
+                posicao = (posicao + 1) & mascara;
+            }
+            chaves[posicao] = chave;
+            impressoes[posicao] = impressoesAntigas[i];
+            posicoes[posicao] = posicoesAntigas[i];
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        impressoes = new long[capacidade];
+        posicoes = new int[capacidade];
+        limiteRedimensionamento = (int) (capacidade * OCUPACAO_MAXIMA);
+    }
+
+    /**
+     * FNV-1a de 64 bits seguido do finalizador do MurmurHash3, para espalhar
+     * ids sequenciais; o zero é reservado para posição vazia.
+     */
+    static long hash(String id) {
+        long h = finalizar(acumular(FNV_INICIAL, id));
+        return h == VAZIO ? 1L : h;
+    }
+
+    static long acumular(long h, String valor) {
+        if (valor == null) {
+            return (h ^ 0xff) * FNV_PRIMO;
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= FNV_PRIMO;
+        }
+        // Separador, para que ("ab", "c") e ("a", "bc") difiram
+        return (h ^ 0xfe) * FNV_PRIMO;
+    }
+
+    static long finalizar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * AdaptiveLotSizer.java - Tamanho de lote ajustado pela latência dos commits
+ *
+ *  - Um controle por fonte (ITAU, OPF), mantido entre execuções do import
+ *  - AIMD: lote efetivado abaixo da latência alvo e sem conflito aumenta o
+ *    tamanho em "passo"; acima do alvo ou com deadlock/lock wait, reduz
+ *    pela metade
+ *  - Com lotes em paralelo o retorno chega atrasado: só reduz com amostras
+ *    do tamanho atual (ou maior), para não reduzir várias vezes pela mesma
+ *    degradação
+ *  - Métricas (por fonte): importacao.lote.tamanho, importacao.lote.duracao,
+ *    importacao.lote.tamanho.atual e importacao.lote.conflitos
+ */
+
+package com.example.batchimport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class AdaptiveLotSizer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveLotSizer.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    private final int tamanhoInicial;
+    private final int passo;
+    private final long latenciaAlvoNanos;
+    private final ConcurrentHashMap<String, ControleLote> controles = new ConcurrentHashMap<>();
+
+    public AdaptiveLotSizer(MeterRegistry meterRegistry,
+                            @Value("${importacao.lote.tamanho-minimo:100}") int tamanhoMinimo,
+                            @Value("${importacao.lote.tamanho-maximo:5000}") int tamanhoMaximo,
+                            @Value("${importacao.lote.tamanho-inicial:500}") int tamanhoInicial,
+                            @Value("${importacao.lote.passo:50}") int passo,
+                            @Value("${importacao.lote.latencia-alvo-ms:1000}") long latenciaAlvoMs) {
+        if (tamanhoMinimo < 1 || tamanhoMaximo < tamanhoMinimo) {
+            throw new IllegalArgumentException("Limites de lote inválidos: " + tamanhoMinimo + "-" + tamanhoMaximo);
+        }
+        this.meterRegistry = meterRegistry;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.tamanhoInicial = Math.max(tamanhoMinimo, Math.min(tamanhoInicial, tamanhoMaximo));
+        this.passo = Math.max(1, passo);
+        this.latenciaAlvoNanos = TimeUnit.MILLISECONDS.toNanos(latenciaAlvoMs);
+    }
+
+    public ControleLote para(String fonte) {
+        return controles.computeIfAbsent(fonte, ControleLote::new);
+    }
+
+    /**
+     * Estado de uma fonte; usado concorrentemente pelos lotes em andamento.
+     */
+    public class ControleLote {
+
+        private final String fonte;
+        private final AtomicInteger tamanho = new AtomicInteger(tamanhoInicial);
+        private final DistributionSummary tamanhos;
+        private final Timer duracoes;
+        private final Counter conflitos;
+
+        private ControleLote(String fonte) {
+            this.fonte = fonte;
+            this.tamanhos = DistributionSummary.builder("importacao.lote.tamanho")
+                    .baseUnit("itens").tag("fonte", fonte).register(meterRegistry);
+            this.duracoes = Timer.builder("importacao.lote.duracao").tag("fonte", fonte).register(meterRegistry);
+            this.conflitos = Counter.builder("importacao.lote.conflitos").tag("fonte", fonte).register(meterRegistry);
+            Gauge.builder("importacao.lote.tamanho.atual", tamanho, AtomicInteger::get)
+                    .tag("fonte", fonte).register(meterRegistry);
+        }
+
+        /** Tamanho do próximo lote. */
+        public int tamanho() {
+            return tamanho.get();
+        }
+
+        /**
+         * Lote efetivado.
+         *
+         * @param conflitosNoLote tentativas repetidas por deadlock/lock wait
+         */
+        public void registrarLote(int tamanhoLote, long duracaoNanos, int conflitosNoLote) {
+            tamanhos.record(tamanhoLote);
+            duracoes.record(duracaoNanos, TimeUnit.NANOSECONDS);
+
+            if (conflitosNoLote > 0) {
+                conflitos.increment(conflitosNoLote);
+                reduzir(tamanhoLote, "conflito de lock");
+            } else if (duracaoNanos > latenciaAlvoNanos) {
+                reduzir(tamanhoLote, "latência " + TimeUnit.NANOSECONDS.toMillis(duracaoNanos) + " ms");
+            } else {
+                tamanho.accumulateAndGet(tamanhoLote, (atual, amostra) ->
+                        amostra >= atual ? Math.min(atual + passo, tamanhoMaximo) : atual);
+            }
+        }
+
+        /** Lote que esgotou as tentativas por deadlock/lock wait. */
+        public void registrarFalhaPorConflito(int tamanhoLote) {
+            conflitos.increment();
+            reduzir(tamanhoLote, "lote abandonado por conflito de lock");
+        }
+
+        private void reduzir(int tamanhoLote, String motivo) {
+            int anterior = tamanho.getAndAccumulate(tamanhoLote, (atual, amostra) ->
+                    amostra >= atual ? Math.max(atual / 2, tamanhoMinimo) : atual);
+            if (anterior != tamanho.get()) {
+                log.info("Lote reduzido fonte={} de {} para {} ({})", fonte, anterior, tamanho.get(), motivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * CsvAccountSource.java - Contas em CSV, lidas linha a linha
+ *
+ * A primeira linha é o cabeçalho; as colunas são localizadas pelo nome:
+ *   cod_idt_conta, usuario_id, campo1, campo2, consent
+ * Campos vazios viram null; campos entre aspas podem conter o separador e
+ * aspas duplicadas ("").
+ */
+
+package com.example.batchimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class CsvAccountSource implements ImportSource<ImportContasBatchService.AccountDTO> {
+
+    private final String descricao;
+    private final BufferedReader leitor;
+    private final char separador;
+    private final int colunaConta;
+    private final int colunaUsuario;
+    private final int colunaCampo1;
+    private final int colunaCampo2;
+    private final int colunaConsent;
+
+    private String proximaLinha;
+    private long numeroLinha;
+
+    public CsvAccountSource(Path arquivo, char separador) {
+        this(arquivo.toString(), StreamFiles.abrir(arquivo), separador);
+    }
+
+    public CsvAccountSource(String descricao, InputStream entrada, char separador) {
+        this.descricao = descricao;
+        this.separador = separador;
+        this.leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        String cabecalho = lerLinha();
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo CSV sem cabeçalho: " + descricao);
+        }
+        List<String> colunas = dividir(cabecalho);
+        this.colunaConta = indiceObrigatorio(colunas, "cod_idt_conta");
+        this.colunaUsuario = colunas.indexOf("usuario_id");
+        this.colunaCampo1 = colunas.indexOf("campo1");
+        this.colunaCampo2 = colunas.indexOf("campo2");
+        this.colunaConsent = colunas.indexOf("consent");
+        this.proximaLinha = lerLinhaNaoVazia();
+    }
+
+    @Override
+    public String descricao() {
+        return descricao;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proximaLinha != null;
+    }
+
+    @Override
+    public ImportContasBatchService.AccountDTO next() {
+        if (proximaLinha == null) throw new NoSuchElementException();
+        List<String> campos = dividir(proximaLinha);
+        long linha = numeroLinha;
+        proximaLinha = lerLinhaNaoVazia();
+
+        try {
+            String campo1 = campo(campos, colunaCampo1);
+            String campo2 = campo(campos, colunaCampo2);
+            String consent = campo(campos, colunaConsent);
+            String usuario = campo(campos, colunaUsuario);
+            return new ImportContasBatchService.AccountDTO(
+                    campo(campos, colunaConta),
+                    usuario != null ? Long.valueOf(usuario) : null,
+                    campo1 != null || campo2 != null ? new ImportContasBatchService.DetalheDTO(campo1, campo2) : null,
+                    consent != null ? new ImportContasBatchService.ConsentDTO(consent) : null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("usuario_id inválido em " + descricao + " linha " + linha, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            leitor.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String lerLinhaNaoVazia() {
+        String linha;
+        do {
+            linha = lerLinha();
+        } while (linha != null && linha.isBlank());
+        return linha;
+    }
+
+    private String lerLinha() {
+        try {
+            String linha = leitor.readLine();
+            if (linha != null) numeroLinha++;
+            return linha;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro lendo " + descricao + " linha " + (numeroLinha + 1), e);
+        }
+    }
+
+    private List<String> dividir(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        if (indice < 0 || indice >= campos.size()) return null;
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private int indiceObrigatorio(List<String> colunas, String nome) {
+        int indice = colunas.indexOf(nome);
+        if (indice < 0) {
+            throw new IllegalArgumentException("Coluna " + nome + " ausente no cabeçalho de " + descricao);
+        }
+        return indice;
+    }
+}
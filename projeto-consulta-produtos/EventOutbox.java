@@ -0,0 +1,101 @@
+/*
+ * EventOutbox.java - Outbox transacional dos eventos do import
+ *
+ * Os eventos são gravados na mesma transação das alterações que os originam
+ * e publicados depois pelo OutboxRelay; um rollback descarta também os
+ * eventos. Tabela (MySQL):
+ *
+ *   CREATE TABLE evento_outbox (
+ *       id               BIGINT AUTO_INCREMENT PRIMARY KEY,
+ *       topico           VARCHAR(100) NOT NULL,
+ *       chave            VARCHAR(100) NOT NULL,
+ *       payload          TEXT         NOT NULL,
+ *       datahora_criacao DATETIME(6)  NOT NULL,
+ *       publicado_em     DATETIME(6)  NULL,
+ *       tentativas       INT          NOT NULL DEFAULT 0,
+ *       ultimo_erro      VARCHAR(500) NULL,
+ *       INDEX idx_evento_outbox_pendente (publicado_em, id)
+ *   );
+ */
+
+package com.example.batchimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class EventOutbox {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    public EventOutbox(NamedParameterJdbcTemplate jdbc, ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Grava os eventos na transação atual, na ordem recebida.
+     */
+    public void registrar(List<NovoEvento> eventos) {
+        if (eventos.isEmpty()) return;
+
+        String sql = "INSERT INTO evento_outbox (topico, chave, payload, datahora_criacao) " +
+                "VALUES (:topico, :chave, :payload, NOW())";
+
+        SqlParameterSource[] batch = eventos.stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("topico", e.topico())
+                        .addValue("chave", e.chave())
+                        .addValue("payload", serializar(e.payload())))
+                .toArray(SqlParameterSource[]::new);
+
+        jdbc.batchUpdate(sql, batch);
+    }
+
+    /**
+     * Eventos ainda não publicados, em ordem de gravação.
+     */
+    public List<EventoOutbox> pendentes(int limite) {
+        String sql = "SELECT id, topico, chave, payload FROM evento_outbox " +
+                "WHERE publicado_em IS NULL ORDER BY id LIMIT :limite";
+
+        return jdbc.query(sql, new MapSqlParameterSource("limite", limite), (rs, i) ->
+                new EventoOutbox(rs.getLong("id"), rs.getString("topico"), rs.getString("chave"), rs.getString("payload")));
+    }
+
+    public void marcarPublicados(List<Long> ids) {
+        if (ids.isEmpty()) return;
+        jdbc.update("UPDATE evento_outbox SET publicado_em = NOW() WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    public void registrarFalha(List<Long> ids, String erro) {
+        if (ids.isEmpty()) return;
+        String mensagem = erro != null && erro.length() > TAMANHO_MAXIMO_ERRO ? erro.substring(0, TAMANHO_MAXIMO_ERRO) : erro;
+        jdbc.update("UPDATE evento_outbox SET tentativas = tentativas + 1, ultimo_erro = :erro WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids).addValue("erro", mensagem));
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload de evento não serializável: " + payload, e);
+        }
+    }
+
+    /** Evento a gravar; o payload é serializado em JSON. */
+    public record NovoEvento(String topico, String chave, Object payload) {}
+
+    /** Evento gravado, com o payload em JSON. */
+    public record EventoOutbox(long id, String topico, String chave, String payload) {}
+}
@@ -0,0 +1,23 @@
+/*
+ * EventPublisher.java - Publicação dos eventos drenados do outbox
+ */
+
+package com.example.batchimport;
+
+import java.util.List;
+
+public interface EventPublisher {
+
+    /**
+     * Publica os eventos na ordem recebida e só retorna depois que todos
+     * foram confirmados; qualquer falha lança exceção e o lote inteiro é
+     * tentado de novo (entrega at-least-once, consumidores deduplicam pelo id).
+     */
+    void publicar(List<EventOutbox.EventoOutbox> eventos);
+
+    class PublicacaoException extends RuntimeException {
+        public PublicacaoException(String mensagem, Throwable causa) {
+            super(mensagem, causa);
+        }
+    }
+}
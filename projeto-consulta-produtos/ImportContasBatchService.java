@@ -6,22 +6,37 @@
  *  - Atualização de detalhes e consentimentos
  *  - Associação de usuário à conta (usuario_conta)
  *  - Processamento de revogadas (produtosRevogados)
- *  - Envio de eventos Kafka (conta-criada / conta-revogada)
+ *  - Eventos Kafka (conta-criada / conta-revogada) gravados no outbox na
+ *    transação do lote e publicados pelo OutboxRelay
  *  - Identificador único e PK da conta: cod_idt_conta
+ *  - Upserts multi-linha em MySQL, PostgreSQL ou H2 (UpsertCommand)
+ *  - Lotes em paralelo (ParallelLotProcessor), um por transação, com no máximo
+ *    N lotes em andamento (N limitado pelo pool de conexões)
+ *  - Entrada lida sob demanda (ImportSource: NDJSON, CSV, cursor JDBC)
+ *  - Tamanho dos lotes ITAU/OPF ajustado pela latência e pelos conflitos de
+ *    lock (AdaptiveLotSizer)
+ *  - Contas repetidas na entrada descartadas antes do banco (AccountDeduplicator)
+ *  - Lotes efetivados registrados no ImportJournal, na transação do lote;
+ *    uma execução interrompida é retomada a partir deles (retomarImportacao)
  */
 
 package com.example.batchimport;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
@@ -32,55 +47,211 @@ public class ImportContasBatchService {
     private static final Logger log = LoggerFactory.getLogger(ImportContasBatchService.class);
 
     private final NamedParameterJdbcTemplate jdbc;
-    private final KafkaTemplate<String, Object> kafka;
+    private final UpsertExecutor upserts;
+    private final EventOutbox outbox;
+    private final ImportJournal journal;
+    private final AdaptiveLotSizer tamanhoLote;
     private final ContaMapper contaMapper;
-
-    private static final int TAMANHO_LOTE = 500;
+    private final TransactionTemplate transacaoLote;
+    private final ParallelLotProcessor processadorLotes;
+    private final int capacidadeDeduplicacao;
+
+    // Conexões deixadas fora do import quando o limite é derivado do pool
+    private static final int CONEXOES_RESERVADAS = 2;
+    // Tentativas de um lote que perdeu um deadlock para outro lote em paralelo
+    private static final int MAX_TENTATIVAS_LOTE = 3;
+    // Máximo de ids por consulta IN
+    private static final int TAMANHO_BLOCO_IN = 1000;
+
+    // Upserts multi-linha, com o SQL do dialeto do banco (UpsertExecutor)
+    private static final UpsertCommand CONTAS = UpsertCommand.tabela("contas")
+            .colunas("cod_idt_conta", "tipo")
+            .expressao("datahora_criacao", "NOW()")
+            .expressao("datahora_alteracao", "NOW()")
+            .chave("cod_idt_conta")
+            .build();
+    private static final UpsertCommand DETALHES = UpsertCommand.tabela("conta_detalhes")
+            .colunas("conta_id", "campo1", "campo2")
+            .chave("conta_id")
+            .atualizar("campo1", "campo2")
+            .build();
+    private static final UpsertCommand CONSENTIMENTOS = UpsertCommand.tabela("consentimentos")
+            .colunas("conta_id", "consent")
+            .expressao("datahora_criacao", "NOW()")
+            .chave("conta_id")
+            .atualizar("consent", "datahora_criacao")
+            .build();
+    private static final UpsertCommand USUARIO_CONTA = UpsertCommand.tabela("usuario_conta")
+            .colunas("usuario_id", "conta_id")
+            .chave("usuario_id", "conta_id")
+            .build();
 
     public ImportContasBatchService(NamedParameterJdbcTemplate jdbc,
-                                    KafkaTemplate<String, Object> kafka,
-                                    ContaMapper contaMapper) {
+                                    UpsertExecutor upserts,
+                                    EventOutbox outbox,
+                                    ImportJournal journal,
+                                    AdaptiveLotSizer tamanhoLote,
+                                    ContaMapper contaMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    DataSource dataSource,
+                                    @Value("${importacao.max-lotes-concorrentes:0}") int maxLotesConcorrentes,
+                                    @Value("${importacao.modo-falha:INTERROMPER}") ParallelLotProcessor.ModoFalha modoFalha,
+                                    @Value("${importacao.deduplicacao.capacidade-inicial:1048576}") int capacidadeDeduplicacao) {
         this.jdbc = jdbc;
-        this.kafka = kafka;
+        this.upserts = upserts;
+        this.outbox = outbox;
+        this.journal = journal;
+        this.tamanhoLote = tamanhoLote;
         this.contaMapper = contaMapper;
+        this.transacaoLote = new TransactionTemplate(transactionManager);
+        this.processadorLotes = new ParallelLotProcessor(
+                maxLotesConcorrentes > 0 ? maxLotesConcorrentes : limitePeloPool(dataSource), modoFalha);
+        this.capacidadeDeduplicacao = capacidadeDeduplicacao;
+    }
+
+    /**
+     * Importa as contas ITAU e depois as OPF (lotes de cada origem em paralelo)
+     * e processa as revogadas.
+     *
+     * @return lotes processados e, no modo CONTINUAR, os lotes que falharam
+     * @throws ParallelLotProcessor.ImportacaoException no modo INTERROMPER, na primeira falha
+     */
+    public RelatorioImportacao importarContas(List<AccountDTO> itauAccounts,
+                                              List<AccountDTO> opfAccounts,
+                                              List<String> produtosRevogados) {
+        log.info("Entrada em memória: itau={} opf={} revogadas={}",
+                tamanho(itauAccounts), tamanho(opfAccounts), tamanho(produtosRevogados));
+        return importarContas(ImportSource.deLista("itau", itauAccounts),
+                ImportSource.deLista("opf", opfAccounts),
+                ImportSource.deLista("revogadas", produtosRevogados));
     }
 
-    public void importarContas(List<AccountDTO> itauAccounts,
-                               List<AccountDTO> opfAccounts,
-                               List<String> produtosRevogados) {
+    /**
+     * Importa a partir de fontes lidas sob demanda (NDJSON, CSV, cursor JDBC):
+     * cada lote é montado só quando há vaga para ele, então a memória fica
+     * limitada a tamanho do lote x lotes concorrentes. As fontes são fechadas
+     * ao final, inclusive em caso de falha.
+     */
+    public RelatorioImportacao importarContas(ImportSource<AccountDTO> itauAccounts,
+                                              ImportSource<AccountDTO> opfAccounts,
+                                              ImportSource<String> produtosRevogados) {
+        return importarContas(UUID.randomUUID().toString(), itauAccounts, opfAccounts, produtosRevogados);
+    }
 
-        Instant start = Instant.now();
-        log.info("Iniciando import: itau={} opf={} revogadas={} ",
-                itauAccounts.size(), opfAccounts.size(), produtosRevogados.size());
+    /**
+     * Importa registrando os lotes sob o id de execução informado, que deve
+     * ser novo; com ele, uma execução interrompida pode ser retomada.
+     */
+    public RelatorioImportacao importarContas(String idExecucao,
+                                              ImportSource<AccountDTO> itauAccounts,
+                                              ImportSource<AccountDTO> opfAccounts,
+                                              ImportSource<String> produtosRevogados) {
+        if (journal.possuiLotes(idExecucao)) {
+            throw new IllegalStateException("Execução " + idExecucao + " já possui lotes efetivados; use retomarImportacao");
+        }
+        return importar(idExecucao, false, itauAccounts, opfAccounts, produtosRevogados);
+    }
 
-        processaEmLotes(itauAccounts, "ITAU");
-        processaEmLotes(opfAccounts, "OPF");
-        processaRevogadas(produtosRevogados);
+    /**
+     * Retoma a execução: as fontes, que devem trazer a mesma entrada, são
+     * lidas do início e os lotes já efetivados são pulados. Se a entrada
+     * difere nas faixas já efetivadas, o import falha antes de alterar nada
+     * nelas.
+     */
+    public RelatorioImportacao retomarImportacao(String idExecucao,
+                                                 ImportSource<AccountDTO> itauAccounts,
+                                                 ImportSource<AccountDTO> opfAccounts,
+                                                 ImportSource<String> produtosRevogados) {
+        return importar(idExecucao, true, itauAccounts, opfAccounts, produtosRevogados);
+    }
 
-        log.info("Import finalizado em {} ms", Duration.between(start, Instant.now()).toMillis());
+    private RelatorioImportacao importar(String idExecucao,
+                                        boolean retomar,
+                                        ImportSource<AccountDTO> itauAccounts,
+                                        ImportSource<AccountDTO> opfAccounts,
+                                        ImportSource<String> produtosRevogados) {
+        try (itauAccounts; opfAccounts; produtosRevogados) {
+            Instant start = Instant.now();
+            log.info("Iniciando import execucao={} retomada={}: itau={} opf={} revogadas={} lotesConcorrentes={}",
+                    idExecucao, retomar, itauAccounts.descricao(), opfAccounts.descricao(), produtosRevogados.descricao(),
+                    processadorLotes.getMaxLotesConcorrentes());
+
+            // Repetições exatas saem antes dos lotes; as posições do journal
+            // são as da entrada já deduplicada. Uma repetição mantida só é
+            // gravada depois do lote da ocorrência anterior
+            AccountDeduplicator deduplicacao = new AccountDeduplicator(capacidadeDeduplicacao);
+            ParallelLotProcessor.ResultadoLotes itau =
+                    processaEmLotes(idExecucao, retomar, deduplicacao.filtrar(itauAccounts, "ITAU"), "ITAU");
+            ParallelLotProcessor.ResultadoLotes opf =
+                    processaEmLotes(idExecucao, retomar, deduplicacao.filtrar(opfAccounts, "OPF"), "OPF");
+            ParallelLotProcessor.ResultadoLotes revogadas = processaRevogadas(idExecucao, retomar, produtosRevogados);
+
+            RelatorioImportacao relatorio = new RelatorioImportacao(idExecucao, itau, opf, revogadas,
+                    deduplicacao.resumo(), Duration.between(start, Instant.now()).toMillis());
+            log.info("Import execucao={} finalizado em {} ms: itens={} lotes={} falhas={} contasDistintas={} "
+                            + "duplicadasDescartadas={} repetidasMantidas={} tabelaIdsBytes={}",
+                    idExecucao, relatorio.duracaoMs(), itau.itensProcessados() + opf.itensProcessados(),
+                    itau.lotesProcessados() + opf.lotesProcessados() + revogadas.lotesProcessados(),
+                    relatorio.falhas().size(), relatorio.deduplicacao().contasDistintas(),
+                    relatorio.deduplicacao().descartadas(), relatorio.deduplicacao().repetidasMantidas(),
+                    relatorio.deduplicacao().bytesTabela());
+            return relatorio;
+        }
     }
 
-    private void processaEmLotes(List<AccountDTO> accounts, String tipo) {
-        if (accounts == null || accounts.isEmpty()) return;
+    private ParallelLotProcessor.ResultadoLotes processaEmLotes(String idExecucao, boolean retomar,
+                                                                AccountDeduplicator.Filtro accounts, String tipo) {
+        AdaptiveLotSizer.ControleLote controle = tamanhoLote.para(tipo);
+        LotIterator<AccountDTO> lotes = new LotIterator<>(tipo, accounts, controle::tamanho,
+                retomar ? journal.concluidos(idExecucao, tipo) : List.of(), accounts::aguardarAte);
+
+        ParallelLotProcessor.ResultadoLotes resultado = processadorLotes.processar(tipo, lotes, lote -> {
+            long inicio = System.nanoTime();
+            int conflitos;
+            try {
+                conflitos = executaEmTransacao(tipo, lote.size(), () -> {
+                    processaLote(lote.itens(), tipo);
+                    journal.registrar(idExecucao, tipo, lote);
+                });
+            } catch (PessimisticLockingFailureException e) {
+                controle.registrarFalhaPorConflito(lote.size());
+                throw e;
+            }
+            controle.registrarLote(lote.size(), System.nanoTime() - inicio, conflitos);
+        });
+        logaItensPulados(tipo, lotes);
+        return resultado;
+    }
+
+    private static void logaItensPulados(String tipo, LotIterator<?> lotes) {
+        if (lotes.getItensPulados() > 0) {
+            log.info("Itens já efetivados pulados tipo={} itens={}", tipo, lotes.getItensPulados());
+        }
+    }
 
-        int total = accounts.size();
-        for (int i = 0; i < total; i += TAMANHO_LOTE) {
-            int toIndex = Math.min(i + TAMANHO_LOTE, total);
-            List<AccountDTO> lote = accounts.subList(i, toIndex);
-            Instant s = Instant.now();
+    /**
+     * Executa o lote na sua própria transação; lotes em paralelo podem
+     * disputar as mesmas linhas, e o que perde um deadlock (ou estoura o
+     * lock wait) é repetido.
+     *
+     * @return tentativas repetidas por conflito de lock
+     */
+    private int executaEmTransacao(String tipo, int tamanho, Runnable acao) {
+        for (int tentativa = 1; ; tentativa++) {
             try {
-                processaLoteTransactional(lote, tipo);
-                log.info("Lote processado tipo={} tamanho={} tempoMs={}", tipo, lote.size(), Duration.between(s, Instant.now()).toMillis());
-            } catch (Exception e) {
-                log.error("Erro processando lote tipo={} tamanho={}", tipo, lote.size(), e);
-                throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+                transacaoLote.executeWithoutResult(status -> acao.run());
+                return tentativa - 1;
+            } catch (PessimisticLockingFailureException e) {
+                if (tentativa >= MAX_TENTATIVAS_LOTE) throw e;
+                log.warn("Conflito de lock no lote tipo={} tamanho={}, tentativa {} de {}",
+                        tipo, tamanho, tentativa, MAX_TENTATIVAS_LOTE);
             }
         }
     }
 
-    @Transactional
-    public void processaLoteTransactional(List<AccountDTO> lote, String tipo) {
-        upsertContasBatch(lote, tipo);
+    private void processaLote(List<AccountDTO> entrada, String tipo) {
+        List<AccountDTO> lote = AccountDeduplicator.colapsar(entrada);
+        Set<String> contasInseridas = upsertContasBatch(lote, tipo);
         upsertDetalhesBatch(lote);
         upsertUsuarioContaBatch(lote);
 
@@ -88,137 +259,190 @@ public class ImportContasBatchService {
             upsertConsentimentosBatch(lote);
         }
 
-        enviarEventosCriacao(lote);
+        enviarEventosCriacao(lote, tipo, contasInseridas);
     }
 
-    private void processaRevogadas(List<String> produtosRevogados) {
-        if (produtosRevogados == null || produtosRevogados.isEmpty()) return;
-
-        String sqlDelete = "DELETE FROM usuario_conta WHERE conta_id IN (:ids)";
-        jdbc.update(sqlDelete, new MapSqlParameterSource("ids", produtosRevogados));
-
-        for (String codIdt : produtosRevogados) {
-            Optional<ContaUsuarioView> view = carregarContaUsuario(codIdt);
-            view.ifPresent(v -> {
-                ContaEvento contaEvento = contaMapper.toContaEvento(v);
-                UsuarioEvento usuarioEvento = contaMapper.toUsuarioEvento(v);
-                kafka.send("conta-revogada", contaEvento.id(),
-                        Map.of("usuario", usuarioEvento, "conta", contaEvento));
-                log.info("Evento conta-revogada enviado para conta {} usuario {}", v.codIdtConta(), v.usuarioId());
-            });
-        }
+    /**
+     * Revoga as contas em blocos de TAMANHO_BLOCO_IN ids, cada bloco em uma
+     * transação (em paralelo, como os lotes): os pares (conta, usuário) são
+     * lidos e travados antes do DELETE, e os eventos conta-revogada saem
+     * desse snapshot, um por par removido.
+     */
+    private ParallelLotProcessor.ResultadoLotes processaRevogadas(String idExecucao, boolean retomar,
+                                                                  Iterator<String> produtosRevogados) {
+        LotIterator<String> blocos = new LotIterator<>("REVOGADAS", produtosRevogados, () -> TAMANHO_BLOCO_IN,
+                retomar ? journal.concluidos(idExecucao, "REVOGADAS") : List.of());
+
+        ParallelLotProcessor.ResultadoLotes resultado = processadorLotes.processar("REVOGADAS", blocos,
+                bloco -> executaEmTransacao("REVOGADAS", bloco.size(), () -> {
+                    revogaBloco(bloco.itens());
+                    journal.registrar(idExecucao, "REVOGADAS", bloco);
+                }));
+        logaItensPulados("REVOGADAS", blocos);
+        return resultado;
     }
 
-    private void enviarEventosCriacao(List<AccountDTO> lote) {
-        for (AccountDTO a : lote) {
-            Optional<ContaUsuarioView> view = carregarContaUsuario(a.codIdtConta);
-            view.ifPresent(v -> {
-                ContaEvento contaEvento = contaMapper.toContaEvento(v);
-                UsuarioEvento usuarioEvento = contaMapper.toUsuarioEvento(v);
-                kafka.send("conta-criada", contaEvento.id(),
-                        Map.of("usuario", usuarioEvento, "conta", contaEvento));
-                log.info("Evento conta-criada enviado para conta {} usuario {}", v.codIdtConta(), v.usuarioId());
-            });
-        }
-    }
+    private void revogaBloco(List<String> codIdts) {
+        String sqlSnapshot = "SELECT c.cod_idt_conta, c.tipo, u.usuario_id " +
+                "FROM contas c " +
+                "JOIN usuario_conta u ON u.conta_id = c.cod_idt_conta " +
+                "WHERE c.cod_idt_conta IN (:ids) " +
+                "FOR UPDATE";
+        MapSqlParameterSource ids = new MapSqlParameterSource("ids", codIdts);
 
-    private void upsertContasBatch(List<AccountDTO> lote, String tipo) {
-        if (lote.isEmpty()) return;
+        List<ContaUsuarioView> pares = jdbc.query(sqlSnapshot, ids, (rs, i) ->
+                new ContaUsuarioView(rs.getString("cod_idt_conta"), rs.getString("tipo"), rs.getLong("usuario_id")));
 
-        if ("ITAU".equalsIgnoreCase(tipo)) {
-            String sql = "INSERT IGNORE INTO contas (cod_idt_conta, tipo, datahora_criacao, datahora_alteracao) " +
-                    "VALUES (:codIdtConta, :tipo, NOW(), NOW())";
+        int removidos = jdbc.update("DELETE FROM usuario_conta WHERE conta_id IN (:ids)", ids);
 
-            SqlParameterSource[] batch = lote.stream()
-                    .map(a -> new MapSqlParameterSource()
-                            .addValue("codIdtConta", a.codIdtConta)
-                            .addValue("tipo", tipo))
-                    .toArray(SqlParameterSource[]::new);
+        outbox.registrar(pares.stream().map(v -> novoEvento("conta-revogada", v)).toList());
+        log.debug("Bloco de revogadas: ids={} pares={} removidos={}", codIdts.size(), pares.size(), removidos);
+    }
 
-            jdbc.batchUpdate(sql, batch);
+    private EventOutbox.NovoEvento novoEvento(String topico, ContaUsuarioView view) {
+        ContaEvento contaEvento = contaMapper.toContaEvento(view);
+        UsuarioEvento usuarioEvento = contaMapper.toUsuarioEvento(view);
+        return new EventOutbox.NovoEvento(topico, view.codIdtConta(),
+                Map.of("usuario", usuarioEvento, "conta", contaEvento));
+    }
 
-        } else {
-            String sql = "INSERT INTO contas (cod_idt_conta, tipo, datahora_criacao, datahora_alteracao) " +
-                    "VALUES (:codIdtConta, :tipo, NOW(), NOW()) " +
-                    "ON DUPLICATE KEY UPDATE datahora_alteracao = NOW()";
+    /**
+     * Registra no outbox, na transação do lote, um evento conta-criada por conta.
+     *
+     * Contas inseridas agora têm o tipo do lote e o usuário do próprio
+     * AccountDTO, e o evento sai dos dados em memória; as já existentes (ou
+     * quando o driver não informa as linhas inseridas) são lidas em consultas
+     * IN por blocos de TAMANHO_BLOCO_IN.
+     */
+    private void enviarEventosCriacao(List<AccountDTO> lote, String tipo, Set<String> contasInseridas) {
+        List<String> aCarregar = new ArrayList<>();
+        for (AccountDTO a : lote) {
+            if (a.usuarioId() == null || !contasInseridas.contains(a.codIdtConta())) {
+                aCarregar.add(a.codIdtConta());
+            }
+        }
+        Map<String, List<ContaUsuarioView>> carregadas = carregarContasUsuario(aCarregar);
 
-            SqlParameterSource[] batch = lote.stream()
-                    .map(a -> new MapSqlParameterSource()
-                            .addValue("codIdtConta", a.codIdtConta)
-                            .addValue("tipo", tipo))
-                    .toArray(SqlParameterSource[]::new);
+        Set<String> vistas = new HashSet<>();
+        List<EventOutbox.NovoEvento> eventos = new ArrayList<>();
+        for (AccountDTO a : lote) {
+            if (!vistas.add(a.codIdtConta())) continue;
 
-            jdbc.batchUpdate(sql, batch);
+            ContaUsuarioView view = contasInseridas.contains(a.codIdtConta()) && a.usuarioId() != null
+                    ? new ContaUsuarioView(a.codIdtConta(), tipo, a.usuarioId())
+                    : escolherView(carregadas.get(a.codIdtConta()), a.usuarioId());
+            if (view != null) {
+                eventos.add(novoEvento("conta-criada", view));
+            }
         }
+        outbox.registrar(eventos);
+        log.debug("Eventos conta-criada registrados no outbox: {} (lidos do banco: {})", eventos.size(), aCarregar.size());
     }
 
-    private void upsertDetalhesBatch(List<AccountDTO> lote) {
-        if (lote.isEmpty()) return;
-
-        String sql = "INSERT INTO conta_detalhes (conta_id, campo1, campo2) " +
-                "VALUES (:contaId, :campo1, :campo2) " +
-                "ON DUPLICATE KEY UPDATE campo1 = VALUES(campo1), campo2 = VALUES(campo2)";
-
-        List<SqlParameterSource> batchList = new ArrayList<>();
-        for (AccountDTO a : lote) {
-            DetalheDTO d = a.detalhe;
-            batchList.add(new MapSqlParameterSource()
-                    .addValue("contaId", a.codIdtConta)
-                    .addValue("campo1", d != null ? d.campo1 : null)
-                    .addValue("campo2", d != null ? d.campo2 : null));
+    /**
+     * Entre os usuários da conta, prefere o informado no AccountDTO.
+     */
+    private static ContaUsuarioView escolherView(List<ContaUsuarioView> views, Long usuarioId) {
+        if (views == null || views.isEmpty()) return null;
+        for (ContaUsuarioView v : views) {
+            if (v.usuarioId().equals(usuarioId)) return v;
         }
+        return views.get(0);
+    }
 
-        if (!batchList.isEmpty()) {
-            jdbc.batchUpdate(sql, batchList.toArray(SqlParameterSource[]::new));
+    /**
+     * Insere as contas ausentes e, no OPF, atualiza a data de alteração das
+     * já existentes.
+     *
+     * @return contas inseridas por este lote
+     */
+    private Set<String> upsertContasBatch(List<AccountDTO> lote, String tipo) {
+        if (lote.isEmpty()) return Set.of();
+
+        Set<String> inseridas = upserts.inserirAusentes(CONTAS, lote, AccountDTO::codIdtConta, (ps, i, a) -> {
+            ps.setString(i, a.codIdtConta());
+            ps.setString(i + 1, tipo);
+        });
+
+        if (!"ITAU".equalsIgnoreCase(tipo)) {
+            List<String> existentes = lote.stream()
+                    .map(AccountDTO::codIdtConta)
+                    .filter(id -> !inseridas.contains(id))
+                    .distinct()
+                    .toList();
+            for (int i = 0; i < existentes.size(); i += TAMANHO_BLOCO_IN) {
+                jdbc.update("UPDATE contas SET datahora_alteracao = NOW() WHERE cod_idt_conta IN (:ids)",
+                        new MapSqlParameterSource("ids", existentes.subList(i, Math.min(i + TAMANHO_BLOCO_IN, existentes.size()))));
+            }
         }
+        return inseridas;
     }
 
-    private void upsertConsentimentosBatch(List<AccountDTO> lote) {
-        if (lote.isEmpty()) return;
-
-        String sql = "INSERT INTO consentimentos (conta_id, consent, datahora_criacao) " +
-                "VALUES (:contaId, :consent, NOW()) " +
-                "ON DUPLICATE KEY UPDATE consent = VALUES(consent), datahora_criacao = NOW()";
-
-        List<SqlParameterSource> batchList = new ArrayList<>();
-        for (AccountDTO a : lote) {
-            if (a.consent == null) continue;
-            batchList.add(new MapSqlParameterSource()
-                    .addValue("contaId", a.codIdtConta)
-                    .addValue("consent", a.consent.payload));
-        }
+    private void upsertDetalhesBatch(List<AccountDTO> lote) {
+        upserts.executar(DETALHES, lote, AccountDTO::codIdtConta, (ps, i, a) -> {
+            DetalheDTO d = a.detalhe();
+            ps.setString(i, a.codIdtConta());
+            ps.setString(i + 1, d != null ? d.campo1() : null);
+            ps.setString(i + 2, d != null ? d.campo2() : null);
+        });
+    }
 
-        if (!batchList.isEmpty()) {
-            jdbc.batchUpdate(sql, batchList.toArray(SqlParameterSource[]::new));
-        }
+    private void upsertConsentimentosBatch(List<AccountDTO> lote) {
+        List<AccountDTO> comConsentimento = lote.stream().filter(a -> a.consent() != null).toList();
+        upserts.executar(CONSENTIMENTOS, comConsentimento, AccountDTO::codIdtConta, (ps, i, a) -> {
+            ps.setString(i, a.codIdtConta());
+            ps.setString(i + 1, a.consent().payload());
+        });
     }
 
     private void upsertUsuarioContaBatch(List<AccountDTO> lote) {
-        if (lote.isEmpty()) return;
+        // Conta sem usuário não tem associação (usuario_id faz parte da PK);
+        // par (usuário, conta) já único no lote (AccountDeduplicator.colapsar)
+        List<AccountDTO> comUsuario = lote.stream().filter(a -> a.usuarioId() != null).toList();
+        upserts.executar(USUARIO_CONTA, comUsuario, null, (ps, i, a) -> {
+            ps.setLong(i, a.usuarioId());
+            ps.setString(i + 1, a.codIdtConta());
+        });
+    }
 
-        String sql = "INSERT IGNORE INTO usuario_conta (usuario_id, conta_id) VALUES (:usuarioId, :contaId)";
-        List<SqlParameterSource> batchList = new ArrayList<>();
-        for (AccountDTO a : lote) {
-            batchList.add(new MapSqlParameterSource()
-                    .addValue("usuarioId", a.usuarioId)
-                    .addValue("contaId", a.codIdtConta));
-        }
-        if (!batchList.isEmpty()) {
-            jdbc.batchUpdate(sql, batchList.toArray(SqlParameterSource[]::new));
+    private static int limitePeloPool(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                int pool = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return Math.max(1, pool - CONEXOES_RESERVADAS);
+            }
+        } catch (SQLException e) {
+            log.warn("Não foi possível obter o tamanho do pool de conexões", e);
         }
+        return 1;
     }
 
-    private Optional<ContaUsuarioView> carregarContaUsuario(String codIdt) {
+    private static int tamanho(List<?> lista) {
+        return lista != null ? lista.size() : 0;
+    }
+
+    /**
+     * Carrega as views das contas informadas em consultas IN por blocos.
+     *
+     * @return views por cod_idt_conta (uma por usuário associado)
+     */
+    private Map<String, List<ContaUsuarioView>> carregarContasUsuario(Collection<String> codIdts) {
+        if (codIdts.isEmpty()) return Map.of();
+
         String sql = "SELECT c.cod_idt_conta, c.tipo, u.usuario_id " +
                      "FROM contas c " +
                      "JOIN usuario_conta u ON u.conta_id = c.cod_idt_conta " +
-                     "WHERE c.cod_idt_conta = :codIdt";
-
-        MapSqlParameterSource params = new MapSqlParameterSource("codIdt", codIdt);
-        List<ContaUsuarioView> list = jdbc.query(sql, params, (rs, i) ->
-                new ContaUsuarioView(rs.getString("cod_idt_conta"), rs.getString("tipo"), rs.getLong("usuario_id")));
-
-        return list.stream().findFirst();
+                     "WHERE c.cod_idt_conta IN (:ids)";
+
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(codIdts));
+        Map<String, List<ContaUsuarioView>> views = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += TAMANHO_BLOCO_IN) {
+            List<String> bloco = ids.subList(i, Math.min(i + TAMANHO_BLOCO_IN, ids.size()));
+            jdbc.query(sql, new MapSqlParameterSource("ids", bloco), (rs, n) ->
+                    new ContaUsuarioView(rs.getString("cod_idt_conta"), rs.getString("tipo"), rs.getLong("usuario_id")))
+                    .forEach(v -> views.computeIfAbsent(v.codIdtConta(), k -> new ArrayList<>()).add(v));
+        }
+        return views;
     }
 
     // DTOs e Records
@@ -229,11 +453,28 @@ public class ImportContasBatchService {
 
     public static record ContaEvento(String id, String codIdtConta, String tipo) {}
     public static record UsuarioEvento(Long id) {}
+
+    public static record RelatorioImportacao(String idExecucao,
+                                             ParallelLotProcessor.ResultadoLotes itau,
+                                             ParallelLotProcessor.ResultadoLotes opf,
+                                             ParallelLotProcessor.ResultadoLotes revogadas,
+                                             AccountDeduplicator.Resumo deduplicacao,
+                                             long duracaoMs) {
+        public List<ParallelLotProcessor.FalhaLote> falhas() {
+            List<ParallelLotProcessor.FalhaLote> falhas = new ArrayList<>(itau.falhas());
+            falhas.addAll(opf.falhas());
+            falhas.addAll(revogadas.falhas());
+            return falhas;
+        }
+    }
 }
 
 // Mapper MapStruct
 @Mapper(componentModel = "spring")
 interface ContaMapper {
+    @Mapping(target = "id", source = "codIdtConta")
     ImportContasBatchService.ContaEvento toContaEvento(ImportContasBatchService.ContaUsuarioView view);
+
+    @Mapping(target = "id", source = "usuarioId")
     ImportContasBatchService.UsuarioEvento toUsuarioEvento(ImportContasBatchService.ContaUsuarioView view);
 }
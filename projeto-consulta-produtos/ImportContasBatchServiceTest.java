@@ -0,0 +1,84 @@
+/*
+ * ImportContasBatchServiceTest.java - Import completo contra H2 em memória
+ */
+
+package com.example.batchimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportContasBatchServiceTest {
+
+    private JdbcTemplate jdbc;
+    private ImportContasBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:import-contas;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE contas (cod_idt_conta VARCHAR(64) PRIMARY KEY, tipo VARCHAR(10), "
+                + "datahora_criacao TIMESTAMP, datahora_alteracao TIMESTAMP)");
+        jdbc.execute("CREATE TABLE conta_detalhes (conta_id VARCHAR(64) PRIMARY KEY, campo1 VARCHAR(100), "
+                + "campo2 VARCHAR(100))");
+        jdbc.execute("CREATE TABLE consentimentos (conta_id VARCHAR(64) PRIMARY KEY, consent VARCHAR(1000), "
+                + "datahora_criacao TIMESTAMP)");
+        jdbc.execute("CREATE TABLE usuario_conta (usuario_id BIGINT, conta_id VARCHAR(64), "
+                + "PRIMARY KEY (usuario_id, conta_id))");
+        jdbc.execute("CREATE TABLE evento_outbox ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, topico VARCHAR(100) NOT NULL, chave VARCHAR(100) NOT NULL, "
+                + "payload CLOB NOT NULL, datahora_criacao TIMESTAMP NOT NULL, publicado_em TIMESTAMP NULL, "
+                + "tentativas INT DEFAULT 0 NOT NULL, ultimo_erro VARCHAR(500) NULL)");
+        jdbc.execute("CREATE TABLE importacao_lote (id_execucao VARCHAR(64) NOT NULL, fonte VARCHAR(20) NOT NULL, "
+                + "posicao_inicial BIGINT NOT NULL, posicao_final BIGINT NOT NULL, checksum BIGINT NOT NULL, "
+                + "datahora_commit TIMESTAMP NOT NULL, PRIMARY KEY (id_execucao, fonte, posicao_inicial))");
+
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbc);
+        service = new ImportContasBatchService(named,
+                new UpsertExecutor(jdbc, SqlDialect.H2, 1000),
+                new EventOutbox(named, new ObjectMapper()),
+                new ImportJournal(named),
+                new AdaptiveLotSizer(new SimpleMeterRegistry(), 2, 2, 2, 1, 1000),
+                new ContaMapperImpl(),
+                new DataSourceTransactionManager(dataSource),
+                dataSource,
+                1,
+                ParallelLotProcessor.ModoFalha.INTERROMPER,
+                16);
+    }
+
+    @Test
+    void importarContas_DeveGravarContaSemAssociarUsuario_QuandoUsuarioIdNulo() {
+        // Given
+        List<ImportContasBatchService.AccountDTO> itau = List.of(
+                conta("c1", null, "a"),
+                conta("c2", 7L, "b"),
+                conta("c3", null, "c"));
+
+        // When
+        ImportContasBatchService.RelatorioImportacao relatorio = service.importarContas(itau, List.of(), List.of());
+
+        // Then
+        assertTrue(relatorio.falhas().isEmpty());
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM contas", Integer.class));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM conta_detalhes", Integer.class));
+        assertEquals(List.of(Map.of("USUARIO_ID", 7L, "CONTA_ID", "c2")),
+                jdbc.queryForList("SELECT usuario_id, conta_id FROM usuario_conta"));
+    }
+
+    private static ImportContasBatchService.AccountDTO conta(String id, Long usuarioId, String campo1) {
+        return new ImportContasBatchService.AccountDTO(id, usuarioId,
+                new ImportContasBatchService.DetalheDTO(campo1, null), null);
+    }
+}
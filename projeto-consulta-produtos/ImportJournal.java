@@ -0,0 +1,89 @@
+/*
+ * ImportJournal.java - Diário dos lotes concluídos, para retomar um import
+ *
+ * Cada lote grava a sua faixa de posições na entrada na mesma transação das
+ * alterações do lote: a linha existe se, e somente se, o lote foi efetivado.
+ * Ao retomar uma execução, essas faixas são puladas (LotIterator) e o
+ * checksum confere que a entrada ainda é a mesma. Tabela (MySQL):
+ *
+ *   CREATE TABLE importacao_lote (
+ *       id_execucao      VARCHAR(64) NOT NULL,
+ *       fonte            VARCHAR(20) NOT NULL,
+ *       posicao_inicial  BIGINT      NOT NULL,
+ *       posicao_final    BIGINT      NOT NULL,
+ *       checksum         BIGINT      NOT NULL,
+ *       datahora_commit  DATETIME(6) NOT NULL,
+ *       PRIMARY KEY (id_execucao, fonte, posicao_inicial)
+ *   );
+ */
+
+package com.example.batchimport;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+@Component
+public class ImportJournal {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public ImportJournal(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Registra o lote na transação atual.
+     */
+    public void registrar(String idExecucao, String fonte, ParallelLotProcessor.Lote<?> lote) {
+        String sql = "INSERT INTO importacao_lote " +
+                "(id_execucao, fonte, posicao_inicial, posicao_final, checksum, datahora_commit) " +
+                "VALUES (:idExecucao, :fonte, :posicaoInicial, :posicaoFinal, :checksum, NOW())";
+
+        jdbc.update(sql, new MapSqlParameterSource()
+                .addValue("idExecucao", idExecucao)
+                .addValue("fonte", fonte)
+                .addValue("posicaoInicial", lote.posicaoInicial())
+                .addValue("posicaoFinal", lote.posicaoFinal())
+                .addValue("checksum", checksum(lote.itens())));
+    }
+
+    /**
+     * Lotes da fonte já efetivados na execução, em ordem de posição.
+     */
+    public List<LoteConcluido> concluidos(String idExecucao, String fonte) {
+        String sql = "SELECT posicao_inicial, posicao_final, checksum FROM importacao_lote " +
+                "WHERE id_execucao = :idExecucao AND fonte = :fonte ORDER BY posicao_inicial";
+
+        return jdbc.query(sql, new MapSqlParameterSource("idExecucao", idExecucao).addValue("fonte", fonte), (rs, i) ->
+                new LoteConcluido(rs.getLong("posicao_inicial"), rs.getLong("posicao_final"), rs.getLong("checksum")));
+    }
+
+    public boolean possuiLotes(String idExecucao) {
+        Integer total = jdbc.queryForObject("SELECT COUNT(*) FROM importacao_lote WHERE id_execucao = :idExecucao",
+                new MapSqlParameterSource("idExecucao", idExecucao), Integer.class);
+        return total != null && total > 0;
+    }
+
+    /**
+     * CRC32 dos itens na ordem da entrada; para records, toString() inclui
+     * todos os campos.
+     */
+    public static long checksum(List<?> itens) {
+        CRC32 crc = new CRC32();
+        itens.forEach(item -> atualizar(crc, item));
+        return crc.getValue();
+    }
+
+    static void atualizar(CRC32 crc, Object item) {
+        crc.update(String.valueOf(item).getBytes(StandardCharsets.UTF_8));
+        crc.update('\n');
+    }
+
+    /** Faixa [posicaoInicial, posicaoFinal) da entrada já efetivada. */
+    public record LoteConcluido(long posicaoInicial, long posicaoFinal, long checksum) {}
+}
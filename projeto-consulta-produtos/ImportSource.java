@@ -0,0 +1,58 @@
+/*
+ * ImportSource.java - Entrada do import consumida sob demanda
+ *
+ * Os lotes são montados a partir do iterador à medida que há vaga no
+ * ParallelLotProcessor, de modo que a memória fica limitada a
+ * tamanho do lote x lotes concorrentes, qualquer que seja o tamanho da entrada.
+ * Implementações: NdjsonAccountSource, CsvAccountSource, JdbcCursorSource,
+ * TextLineSource e listas já em memória (deLista).
+ */
+
+package com.example.batchimport;
+
+import java.util.Iterator;
+import java.util.List;
+
+public interface ImportSource<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Identificação da origem (arquivo, consulta...), usada em logs e checkpoints.
+     */
+    String descricao();
+
+    /**
+     * Libera arquivo ou conexão; não lança exceções verificadas.
+     */
+    @Override
+    void close();
+
+    static <T> ImportSource<T> deLista(String descricao, List<T> itens) {
+        List<T> lista = itens != null ? itens : List.of();
+        Iterator<T> iterador = lista.iterator();
+        return new ImportSource<>() {
+            @Override
+            public String descricao() {
+                return descricao;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterador.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterador.next();
+            }
+
+            @Override
+            public void close() {
+                // Nada a liberar
+            }
+        };
+    }
+
+    static <T> ImportSource<T> vazia(String descricao) {
+        return deLista(descricao, List.of());
+    }
+}
@@ -0,0 +1,14 @@
+/*
+ * ImportacaoConfig.java - Configuração do import de contas
+ */
+
+package com.example.batchimport;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Agendamento do OutboxRelay
+@Configuration
+@EnableScheduling
+public class ImportacaoConfig {
+}
@@ -0,0 +1,39 @@
+/*
+ * InMemoryEventPublisher.java - EventPublisher em memória para testes
+ */
+
+package com.example.batchimport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryEventPublisher implements EventPublisher {
+
+    private final List<EventOutbox.EventoOutbox> publicados = new ArrayList<>();
+    private int falhasPendentes;
+
+    @Override
+    public synchronized void publicar(List<EventOutbox.EventoOutbox> eventos) {
+        if (falhasPendentes > 0) {
+            falhasPendentes--;
+            throw new PublicacaoException("Falha simulada", null);
+        }
+        publicados.addAll(eventos);
+    }
+
+    /**
+     * Faz as próximas chamadas de publicar falharem.
+     */
+    public synchronized void falharProximas(int chamadas) {
+        this.falhasPendentes = chamadas;
+    }
+
+    public synchronized List<EventOutbox.EventoOutbox> getPublicados() {
+        return List.copyOf(publicados);
+    }
+
+    public synchronized void limpar() {
+        publicados.clear();
+        falhasPendentes = 0;
+    }
+}
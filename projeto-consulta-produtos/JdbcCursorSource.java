@@ -0,0 +1,106 @@
+/*
+ * JdbcCursorSource.java - Linhas de uma consulta lidas por cursor
+ *
+ * Usa uma conexão própria (fora das transações dos lotes), somente leitura,
+ * com fetch size limitado; no MySQL o cursor exige useCursorFetch=true na URL
+ * (ou fetch size Integer.MIN_VALUE para streaming linha a linha). A conexão
+ * fica presa até close().
+ */
+
+package com.example.batchimport;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+public class JdbcCursorSource<T> implements ImportSource<T> {
+
+    private final String descricao;
+    private final RowMapper<T> rowMapper;
+    private final Connection conexao;
+    private final PreparedStatement comando;
+    private final ResultSet resultado;
+
+    private boolean proximaLida;
+    private boolean temProxima;
+    private int linha;
+
+    public JdbcCursorSource(DataSource dataSource, String sql, int fetchSize, RowMapper<T> rowMapper, Object... parametros) {
+        this.descricao = sql;
+        this.rowMapper = rowMapper;
+        Connection c = null;
+        try {
+            c = dataSource.getConnection();
+            c.setReadOnly(true);
+            // PostgreSQL só usa cursor com autocommit desligado
+            c.setAutoCommit(false);
+            PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            this.conexao = c;
+            this.comando = ps;
+            this.resultado = ps.executeQuery();
+        } catch (SQLException e) {
+            fecharSilenciosamente(c);
+            throw new IllegalStateException("Não foi possível abrir o cursor: " + sql, e);
+        }
+    }
+
+    @Override
+    public String descricao() {
+        return descricao;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!proximaLida) {
+            try {
+                temProxima = resultado.next();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Erro lendo o cursor após " + linha + " linhas: " + descricao, e);
+            }
+            proximaLida = true;
+        }
+        return temProxima;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        proximaLida = false;
+        try {
+            return rowMapper.mapRow(resultado, linha++);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Erro mapeando a linha " + linha + ": " + descricao, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            resultado.close();
+            comando.close();
+            conexao.rollback();
+        } catch (SQLException e) {
+            // A conexão é fechada de qualquer forma
+        } finally {
+            fecharSilenciosamente(conexao);
+        }
+    }
+
+    private static void fecharSilenciosamente(Connection conexao) {
+        if (conexao == null) return;
+        try {
+            conexao.close();
+        } catch (SQLException e) {
+            // Nada a fazer
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * KafkaEventPublisher.java - EventPublisher sobre o KafkaTemplate
+ */
+
+package com.example.batchimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class KafkaEventPublisher implements EventPublisher {
+
+    private final KafkaTemplate<String, Object> kafka;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+
+    public KafkaEventPublisher(KafkaTemplate<String, Object> kafka,
+                               ObjectMapper objectMapper,
+                               @Value("${importacao.outbox.timeout-publicacao-ms:30000}") long timeoutMs) {
+        this.kafka = kafka;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void publicar(List<EventOutbox.EventoOutbox> eventos) {
+        // Todos os envios são disparados antes de aguardar: o producer agrupa
+        // as mensagens; a ordem por chave depende de enable.idempotence (padrão)
+        List<CompletableFuture<SendResult<String, Object>>> envios = new ArrayList<>(eventos.size());
+        for (EventOutbox.EventoOutbox evento : eventos) {
+            envios.add(kafka.send(evento.topico(), evento.chave(), lerPayload(evento)));
+        }
+        kafka.flush();
+
+        try {
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PublicacaoException("Publicação interrompida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new PublicacaoException("Falha publicando " + eventos.size() + " eventos", e);
+        }
+    }
+
+    // Publicado como JSON estruturado (e não string), como antes do outbox
+    private JsonNode lerPayload(EventOutbox.EventoOutbox evento) {
+        try {
+            return objectMapper.readTree(evento.payload());
+        } catch (JsonProcessingException e) {
+            throw new PublicacaoException("Payload inválido no evento " + evento.id(), e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * LotIterator.java - Montagem dos lotes a partir da entrada
+ *
+ *  - Os itens são lidos só quando o lote é pedido pelo ParallelLotProcessor
+ *  - Cada lote guarda a posição do primeiro item na entrada
+ *  - Ao retomar uma execução, as faixas já efetivadas (ImportJournal) são
+ *    lidas e descartadas, conferindo o checksum; um lote novo nunca atravessa
+ *    uma faixa efetivada
+ *  - Opcionalmente, cada lote diz até que posição os lotes anteriores
+ *    precisam ter terminado antes dele (repetições da mesma conta)
+ */
+
+package com.example.batchimport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntSupplier;
+import java.util.function.LongBinaryOperator;
+import java.util.zip.CRC32;
+
+class LotIterator<T> implements Iterator<ParallelLotProcessor.Lote<T>> {
+
+    private final String fonte;
+    private final Iterator<T> itens;
+    private final IntSupplier tamanhoLote;
+    private final Deque<ImportJournal.LoteConcluido> concluidos;
+    private final LongBinaryOperator aguardarAte;
+
+    private long posicao;
+    private long itensPulados;
+
+    LotIterator(String fonte, Iterator<T> itens, IntSupplier tamanhoLote, List<ImportJournal.LoteConcluido> concluidos) {
+        this(fonte, itens, tamanhoLote, concluidos, null);
+    }
+
+    /**
+     * @param aguardarAte (início, fim) da faixa lida -> posição até a qual os
+     *                    lotes anteriores precisam ter terminado, ou -1
+     */
+    LotIterator(String fonte, Iterator<T> itens, IntSupplier tamanhoLote, List<ImportJournal.LoteConcluido> concluidos,
+                LongBinaryOperator aguardarAte) {
+        this.fonte = fonte;
+        this.itens = itens;
+        this.tamanhoLote = tamanhoLote;
+        this.concluidos = new ArrayDeque<>(concluidos);
+        this.aguardarAte = aguardarAte;
+    }
+
+    @Override
+    public boolean hasNext() {
+        pularConcluidos();
+        return itens.hasNext();
+    }
+
+    @Override
+    public ParallelLotProcessor.Lote<T> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+
+        long limite = tamanhoLote.getAsInt();
+        if (!concluidos.isEmpty()) {
+            limite = Math.min(limite, concluidos.peekFirst().posicaoInicial() - posicao);
+        }
+
+        List<T> lote = new ArrayList<>((int) limite);
+        while (lote.size() < limite && itens.hasNext()) {
+            lote.add(itens.next());
+        }
+        long fim = posicao + lote.size();
+        long ate = aguardarAte != null ? aguardarAte.applyAsLong(posicao, fim) : -1;
+        ParallelLotProcessor.Lote<T> resultado = new ParallelLotProcessor.Lote<>(posicao, lote, ate);
+        posicao = fim;
+        return resultado;
+    }
+
+    /** Itens descartados por já terem sido efetivados. */
+    long getItensPulados() {
+        return itensPulados;
+    }
+
+    private void pularConcluidos() {
+        while (!concluidos.isEmpty() && concluidos.peekFirst().posicaoInicial() <= posicao) {
+            ImportJournal.LoteConcluido concluido = concluidos.pollFirst();
+            if (concluido.posicaoInicial() < posicao) {
+                throw new IllegalStateException("Faixas sobrepostas no diário da fonte " + fonte + ": "
+                        + concluido.posicaoInicial() + "-" + concluido.posicaoFinal());
+            }
+
+            CRC32 crc = new CRC32();
+            for (long i = concluido.posicaoInicial(); i < concluido.posicaoFinal(); i++) {
+                if (!itens.hasNext()) {
+                    throw new IllegalStateException("Entrada " + fonte + " termina na posição " + i
+                            + ", antes do fim do lote já efetivado " + concluido.posicaoInicial() + "-" + concluido.posicaoFinal());
+                }
+                ImportJournal.atualizar(crc, itens.next());
+            }
+            if (crc.getValue() != concluido.checksum()) {
+                throw new IllegalStateException("Entrada " + fonte + " difere da execução anterior nas posições "
+                        + concluido.posicaoInicial() + "-" + concluido.posicaoFinal());
+            }
+            if (aguardarAte != null) {
+                aguardarAte.applyAsLong(concluido.posicaoInicial(), concluido.posicaoFinal());
+            }
+            posicao = concluido.posicaoFinal();
+            itensPulados += concluido.posicaoFinal() - concluido.posicaoInicial();
+        }
+    }
+}
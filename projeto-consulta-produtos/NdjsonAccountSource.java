@@ -0,0 +1,70 @@
+/*
+ * NdjsonAccountSource.java - Contas em NDJSON (um AccountDTO por linha)
+ *
+ * Lido com o parser de streaming do Jackson: apenas o objeto atual fica em
+ * memória. Exemplo de linha:
+ *   {"codIdtConta":"123","usuarioId":42,"detalhe":{"campo1":"a","campo2":"b"},"consent":{"payload":"..."}}
+ */
+
+package com.example.batchimport;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+public class NdjsonAccountSource implements ImportSource<ImportContasBatchService.AccountDTO> {
+
+    private final String descricao;
+    private final MappingIterator<ImportContasBatchService.AccountDTO> registros;
+
+    public NdjsonAccountSource(Path arquivo, ObjectMapper objectMapper) {
+        this(arquivo.toString(), StreamFiles.abrir(arquivo), objectMapper);
+    }
+
+    public NdjsonAccountSource(String descricao, InputStream entrada, ObjectMapper objectMapper) {
+        this.descricao = descricao;
+        try {
+            this.registros = objectMapper.readerFor(ImportContasBatchService.AccountDTO.class).readValues(entrada);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler " + descricao, e);
+        }
+    }
+
+    @Override
+    public String descricao() {
+        return descricao;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return registros.hasNextValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro lendo " + descricao + " em " + registros.getCurrentLocation(), e);
+        }
+    }
+
+    @Override
+    public ImportContasBatchService.AccountDTO next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        try {
+            return registros.nextValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Registro inválido em " + descricao + " em " + registros.getCurrentLocation(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            registros.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
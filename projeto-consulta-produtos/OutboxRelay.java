@@ -0,0 +1,92 @@
+/*
+ * OutboxRelay.java - Drena o evento_outbox para o EventPublisher
+ *
+ *  - Lotes grandes em ordem de id; cada lote é marcado como publicado só
+ *    depois da confirmação de todos os eventos
+ *  - Em falha, o lote é registrado (tentativas, ultimo_erro) e o relay espera
+ *    um backoff exponencial antes de tentar de novo o mesmo lote; eventos
+ *    posteriores não passam à frente
+ *  - Deve rodar em uma única instância (importacao.outbox.relay-habilitado)
+ */
+
+package com.example.batchimport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "importacao.outbox.relay-habilitado", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final EventOutbox outbox;
+    private final EventPublisher publisher;
+    private final int tamanhoLote;
+    private final long backoffInicialMs;
+    private final long backoffMaximoMs;
+
+    private int falhasSeguidas;
+    private long proximaTentativaMs;
+
+    public OutboxRelay(EventOutbox outbox,
+                       EventPublisher publisher,
+                       @Value("${importacao.outbox.tamanho-lote:1000}") int tamanhoLote,
+                       @Value("${importacao.outbox.backoff-inicial-ms:500}") long backoffInicialMs,
+                       @Value("${importacao.outbox.backoff-maximo-ms:60000}") long backoffMaximoMs) {
+        this.outbox = outbox;
+        this.publisher = publisher;
+        this.tamanhoLote = tamanhoLote;
+        this.backoffInicialMs = backoffInicialMs;
+        this.backoffMaximoMs = backoffMaximoMs;
+    }
+
+    @Scheduled(fixedDelayString = "${importacao.outbox.intervalo-ms:500}")
+    public void agendado() {
+        drenar();
+    }
+
+    /**
+     * Publica os eventos pendentes até esvaziar o outbox ou falhar.
+     *
+     * @return eventos publicados nesta chamada
+     */
+    public synchronized int drenar() {
+        if (System.currentTimeMillis() < proximaTentativaMs) return 0;
+
+        int publicados = 0;
+        while (true) {
+            List<EventOutbox.EventoOutbox> eventos = outbox.pendentes(tamanhoLote);
+            if (eventos.isEmpty()) break;
+
+            List<Long> ids = eventos.stream().map(EventOutbox.EventoOutbox::id).toList();
+            try {
+                publisher.publicar(eventos);
+            } catch (RuntimeException e) {
+                falhasSeguidas++;
+                long espera = Math.min(backoffMaximoMs, backoffInicialMs << Math.min(falhasSeguidas - 1, 16));
+                proximaTentativaMs = System.currentTimeMillis() + espera;
+                outbox.registrarFalha(ids, e.toString());
+                log.warn("Falha publicando {} eventos do outbox (ids {}..{}), nova tentativa em {} ms",
+                        eventos.size(), ids.get(0), ids.get(ids.size() - 1), espera, e);
+                return publicados;
+            }
+
+            outbox.marcarPublicados(ids);
+            publicados += eventos.size();
+            falhasSeguidas = 0;
+            if (eventos.size() < tamanhoLote) break;
+        }
+
+        if (publicados > 0) {
+            log.info("Eventos publicados do outbox: {}", publicados);
+        }
+        return publicados;
+    }
+}
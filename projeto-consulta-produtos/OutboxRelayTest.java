@@ -0,0 +1,126 @@
+/*
+ * OutboxRelayTest.java - Outbox em H2 em memória drenado pelo OutboxRelay
+ * para o InMemoryEventPublisher
+ */
+
+package com.example.batchimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayTest {
+
+    private NamedParameterJdbcTemplate jdbc;
+    private EventOutbox outbox;
+    private InMemoryEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new NamedParameterJdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:outbox-relay;DB_CLOSE_DELAY=-1"));
+        jdbc.getJdbcTemplate().execute("DROP ALL OBJECTS");
+        jdbc.getJdbcTemplate().execute("CREATE TABLE evento_outbox ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, topico VARCHAR(100) NOT NULL, chave VARCHAR(100) NOT NULL, "
+                + "payload CLOB NOT NULL, datahora_criacao TIMESTAMP NOT NULL, publicado_em TIMESTAMP NULL, "
+                + "tentativas INT DEFAULT 0 NOT NULL, ultimo_erro VARCHAR(500) NULL)");
+        outbox = new EventOutbox(jdbc, new ObjectMapper());
+        publisher = new InMemoryEventPublisher();
+    }
+
+    @Test
+    void drenar_DevePublicarEmOrdemEMarcarPublicados_QuandoHaMaisEventosQueOLote() {
+        // Given
+        outbox.registrar(IntStream.range(0, 5)
+                .mapToObj(i -> new EventOutbox.NovoEvento("conta-criada", "conta-" + i, Map.of("conta", "conta-" + i)))
+                .toList());
+        OutboxRelay relay = new OutboxRelay(outbox, publisher, 2, 0, 0);
+
+        // When
+        int publicados = relay.drenar();
+
+        // Then
+        assertEquals(5, publicados);
+        assertEquals(List.of("conta-0", "conta-1", "conta-2", "conta-3", "conta-4"),
+                publisher.getPublicados().stream().map(EventOutbox.EventoOutbox::chave).toList());
+        assertTrue(outbox.pendentes(10).isEmpty());
+    }
+
+    @Test
+    void drenar_DeveRegistrarFalhaEAguardarBackoff_QuandoPublicacaoFalha() {
+        // Given
+        outbox.registrar(List.of(new EventOutbox.NovoEvento("conta-revogada", "conta-1", Map.of("conta", "conta-1"))));
+        publisher.falharProximas(1);
+        OutboxRelay relay = new OutboxRelay(outbox, publisher, 10, 60_000, 60_000);
+
+        // When
+        int naFalha = relay.drenar();
+        int duranteBackoff = relay.drenar();
+
+        // Then
+        assertEquals(0, naFalha);
+        assertEquals(0, duranteBackoff);
+        assertTrue(publisher.getPublicados().isEmpty());
+        assertEquals(1, outbox.pendentes(10).size());
+        assertEquals(1, jdbc.getJdbcTemplate().queryForObject("SELECT tentativas FROM evento_outbox", Integer.class));
+        assertNotNull(jdbc.getJdbcTemplate().queryForObject("SELECT ultimo_erro FROM evento_outbox", String.class));
+    }
+
+    @Test
+    void drenar_NaoDevePassarEventosAFrente_QuandoUmLoteFalha() {
+        // Given
+        outbox.registrar(IntStream.range(0, 4)
+                .mapToObj(i -> new EventOutbox.NovoEvento("conta-criada", "conta-" + i, Map.of("conta", "conta-" + i)))
+                .toList());
+        OutboxRelay relay = new OutboxRelay(outbox, publisher, 2, 0, 0);
+        relay.drenar();
+        publisher.limpar();
+        outbox.registrar(IntStream.range(4, 8)
+                .mapToObj(i -> new EventOutbox.NovoEvento("conta-criada", "conta-" + i, Map.of("conta", "conta-" + i)))
+                .toList());
+        publisher.falharProximas(1);
+
+        // When
+        int naFalha = relay.drenar();
+        List<Map<String, Object>> aposFalha = jdbc.getJdbcTemplate().queryForList(
+                "SELECT chave, tentativas FROM evento_outbox WHERE publicado_em IS NULL ORDER BY id");
+        int naRetomada = relay.drenar();
+
+        // Then
+        assertEquals(0, naFalha);
+        assertEquals(List.of(
+                Map.of("CHAVE", "conta-4", "TENTATIVAS", 1), Map.of("CHAVE", "conta-5", "TENTATIVAS", 1),
+                Map.of("CHAVE", "conta-6", "TENTATIVAS", 0), Map.of("CHAVE", "conta-7", "TENTATIVAS", 0)), aposFalha);
+        assertEquals(4, naRetomada);
+        assertEquals(List.of("conta-4", "conta-5", "conta-6", "conta-7"),
+                publisher.getPublicados().stream().map(EventOutbox.EventoOutbox::chave).toList());
+        assertTrue(outbox.pendentes(10).isEmpty());
+    }
+
+    @Test
+    void drenar_DeveRepublicarOMesmoLote_QuandoBackoffTermina() {
+        // Given
+        outbox.registrar(List.of(
+                new EventOutbox.NovoEvento("conta-criada", "conta-1", Map.of("conta", "conta-1")),
+                new EventOutbox.NovoEvento("conta-criada", "conta-2", Map.of("conta", "conta-2"))));
+        publisher.falharProximas(1);
+        OutboxRelay relay = new OutboxRelay(outbox, publisher, 10, 0, 0);
+        relay.drenar();
+
+        // When
+        int publicados = relay.drenar();
+
+        // Then
+        assertEquals(2, publicados);
+        assertEquals(List.of("conta-1", "conta-2"),
+                publisher.getPublicados().stream().map(EventOutbox.EventoOutbox::chave).toList());
+        assertTrue(outbox.pendentes(10).isEmpty());
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * ParallelLotProcessor.java - Processamento paralelo de lotes do import
+ *
+ *  - Lotes executados em virtual threads, com no máximo N lotes em andamento
+ *  - Backpressure: a entrada só é lida quando há vaga para um novo lote
+ *  - Falhas: INTERROMPER (fail-fast) ou CONTINUAR (relatório ao final)
+ *  - Cada lote traz a posição do seu primeiro item na entrada; lotes já
+ *    concluídos em uma execução anterior podem ter sido pulados (LotIterator)
+ *  - Ordem: um lote com aguardarAte >= 0 só roda quando os lotes que começam
+ *    até essa posição terminaram; se um deles falhou, o lote falha também,
+ *    para que a retomada reaplique os dois na ordem da entrada
+ */
+
+package com.example.batchimport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class ParallelLotProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelLotProcessor.class);
+
+    public enum ModoFalha {
+        /** Para de ler a entrada na primeira falha e lança ImportacaoException. */
+        INTERROMPER,
+        /** Segue com os demais lotes e devolve as falhas no resultado. */
+        CONTINUAR
+    }
+
+    private final int maxLotesConcorrentes;
+    private final ModoFalha modoFalha;
+
+    public ParallelLotProcessor(int maxLotesConcorrentes, ModoFalha modoFalha) {
+        if (maxLotesConcorrentes < 1) {
+            throw new IllegalArgumentException("maxLotesConcorrentes deve ser >= 1");
+        }
+        this.maxLotesConcorrentes = maxLotesConcorrentes;
+        this.modoFalha = modoFalha;
+    }
+
+    /**
+     * Processa os lotes em paralelo e aguarda todos terminarem.
+     *
+     * @param tipo  origem dos lotes (ITAU, OPF...), usada em logs e no resultado
+     * @param lotes entrada, consumida sob demanda
+     * @param acao  processamento de um lote (inclui a transação do lote)
+     */
+    public <T> ResultadoLotes processar(String tipo, Iterator<Lote<T>> lotes, Consumer<Lote<T>> acao) {
+        Semaphore vagas = new Semaphore(maxLotesConcorrentes);
+        AtomicBoolean interrompido = new AtomicBoolean();
+        AtomicLong lotesProcessados = new AtomicLong();
+        AtomicLong itensProcessados = new AtomicLong();
+        Queue<FalhaLote> falhas = new ConcurrentLinkedQueue<>();
+        Map<Long, RuntimeException> erros = new ConcurrentHashMap<>();
+        LotesEmAndamento emAndamento = new LotesEmAndamento();
+
+        long numero = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (!interrompido.get() && lotes.hasNext()) {
+                vagas.acquire();
+                if (interrompido.get()) {
+                    vagas.release();
+                    break;
+                }
+
+                Lote<T> lote = lotes.next();
+                long numeroLote = numero++;
+                long posicaoInicial = lote.posicaoInicial();
+                emAndamento.iniciar(lote);
+
+                executor.execute(() -> {
+                    long inicio = System.nanoTime();
+                    boolean falhou = true;
+                    try {
+                        if (lote.aguardarAte() >= 0) {
+                            emAndamento.aguardar(tipo, numeroLote, lote.aguardarAte());
+                        }
+                        acao.accept(lote);
+                        falhou = false;
+                        lotesProcessados.incrementAndGet();
+                        itensProcessados.addAndGet(lote.size());
+                        log.info("Lote processado tipo={} lote={} tamanho={} tempoMs={}",
+                                tipo, numeroLote, lote.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+                    } catch (RuntimeException e) {
+                        log.error("Erro processando lote tipo={} lote={} posicao={} tamanho={}",
+                                tipo, numeroLote, posicaoInicial, lote.size(), e);
+                        falhas.add(new FalhaLote(tipo, numeroLote, posicaoInicial, lote.size(), e.toString()));
+                        erros.put(numeroLote, e);
+                        if (modoFalha == ModoFalha.INTERROMPER) {
+                            interrompido.set(true);
+                        }
+                    } finally {
+                        emAndamento.terminar(lote, falhou);
+                        vagas.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportacaoException("Import interrompido durante os lotes " + tipo, e, null);
+        }
+
+        List<FalhaLote> falhasOrdenadas = new ArrayList<>(falhas);
+        falhasOrdenadas.sort(Comparator.comparingLong(FalhaLote::lote));
+        ResultadoLotes resultado = new ResultadoLotes(tipo, lotesProcessados.get(), itensProcessados.get(),
+                List.copyOf(falhasOrdenadas));
+
+        if (modoFalha == ModoFalha.INTERROMPER && !falhasOrdenadas.isEmpty()) {
+            // Causa e mensagem do primeiro lote na ordem da entrada, não do primeiro a falhar
+            FalhaLote primeira = falhasOrdenadas.get(0);
+            ImportacaoException excecao = new ImportacaoException(
+                    "Falha nos lotes " + tipo + ": " + primeira.erro(), erros.get(primeira.lote()), resultado);
+            falhasOrdenadas.stream().skip(1).forEach(f -> excecao.addSuppressed(erros.get(f.lote())));
+            throw excecao;
+        }
+        return resultado;
+    }
+
+    public int getMaxLotesConcorrentes() {
+        return maxLotesConcorrentes;
+    }
+
+    /**
+     * Itens de um lote e a posição do primeiro deles na entrada.
+     *
+     * @param aguardarAte posição até a qual os lotes anteriores precisam ter
+     *                    terminado antes deste, ou -1
+     */
+    public record Lote<T>(long posicaoInicial, List<T> itens, long aguardarAte) {
+
+        public Lote(long posicaoInicial, List<T> itens) {
+            this(posicaoInicial, itens, -1);
+        }
+
+        public int size() {
+            return itens.size();
+        }
+
+        public long posicaoFinal() {
+            return posicaoInicial + itens.size();
+        }
+    }
+
+    /**
+     * Faixas dos lotes submetidos e ainda não terminados, e dos que falharam.
+     * Um lote só aguarda lotes submetidos antes dele, que já têm vaga, então
+     * a espera não trava o semáforo.
+     */
+    private static final class LotesEmAndamento {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition terminou = lock.newCondition();
+        private final NavigableMap<Long, Long> pendentes = new TreeMap<>();
+        private final NavigableMap<Long, Long> falhos = new TreeMap<>();
+
+        void iniciar(Lote<?> lote) {
+            lock.lock();
+            try {
+                pendentes.put(lote.posicaoInicial(), lote.posicaoFinal());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void terminar(Lote<?> lote, boolean falhou) {
+            lock.lock();
+            try {
+                pendentes.remove(lote.posicaoInicial());
+                if (falhou) {
+                    falhos.put(lote.posicaoInicial(), lote.posicaoFinal());
+                }
+                terminou.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void aguardar(String tipo, long numeroLote, long posicao) {
+            lock.lock();
+            try {
+                if (!pendentes.isEmpty() && pendentes.firstKey() <= posicao) {
+                    log.debug("Lote aguardando lotes anteriores tipo={} lote={} ate={}", tipo, numeroLote, posicao);
+                }
+                while (!pendentes.isEmpty() && pendentes.firstKey() <= posicao) {
+                    terminou.await();
+                }
+                Map.Entry<Long, Long> falho = falhos.floorEntry(posicao);
+                if (falho != null && falho.getValue() > posicao) {
+                    throw new IllegalStateException("Lote anterior " + falho.getKey() + "-" + falho.getValue()
+                            + " falhou; este lote repete contas dele e não foi aplicado");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido aguardando lotes anteriores", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lote que falhou; posicaoInicial é a posição do primeiro item na entrada.
+     */
+    public record FalhaLote(String tipo, long lote, long posicaoInicial, int tamanho, String erro) {}
+
+    public record ResultadoLotes(String tipo, long lotesProcessados, long itensProcessados, List<FalhaLote> falhas) {}
+
+    /**
+     * Falha do import; traz o resultado parcial dos lotes quando disponível.
+     */
+    public static class ImportacaoException extends RuntimeException {
+
+        private final transient ResultadoLotes resultadoParcial;
+
+        public ImportacaoException(String mensagem, Throwable causa, ResultadoLotes resultadoParcial) {
+            super(mensagem, causa);
+            this.resultadoParcial = resultadoParcial;
+        }
+
+        public ResultadoLotes getResultadoParcial() {
+            return resultadoParcial;
+        }
+    }
+}
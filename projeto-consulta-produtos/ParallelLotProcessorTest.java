@@ -0,0 +1,103 @@
+/*
+ * ParallelLotProcessorTest.java - Falhas e ordem dos lotes em paralelo
+ */
+
+package com.example.batchimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelLotProcessorTest {
+
+    @Test
+    void processar_DeveUsarComoCausaOErroDoPrimeiroLote_QuandoLotePosteriorFalhaAntes() {
+        // Given
+        ParallelLotProcessor processador = new ParallelLotProcessor(2, ParallelLotProcessor.ModoFalha.INTERROMPER);
+        CountDownLatch segundoFalhou = new CountDownLatch(1);
+        RuntimeException erroPrimeiro = new IllegalStateException("lote 0");
+        RuntimeException erroSegundo = new IllegalStateException("lote 1");
+
+        // When
+        ParallelLotProcessor.ImportacaoException excecao = assertThrows(ParallelLotProcessor.ImportacaoException.class,
+                () -> processador.processar("ITAU", List.of(lote(0, -1), lote(1, -1)).iterator(), lote -> {
+                    if (lote.posicaoInicial() == 1) {
+                        segundoFalhou.countDown();
+                        throw erroSegundo;
+                    }
+                    aguardar(segundoFalhou);
+                    throw erroPrimeiro;
+                }));
+
+        // Then
+        assertSame(erroPrimeiro, excecao.getCause());
+        assertTrue(excecao.getMessage().contains("lote 0"));
+        assertArrayEquals(new Throwable[] {erroSegundo}, excecao.getSuppressed());
+        assertEquals(List.of(0L, 1L), excecao.getResultadoParcial().falhas().stream()
+                .map(ParallelLotProcessor.FalhaLote::lote).toList());
+    }
+
+    @Test
+    void processar_DeveAguardarLoteAnterior_QuandoLoteRepeteContas() {
+        // Given
+        ParallelLotProcessor processador = new ParallelLotProcessor(2, ParallelLotProcessor.ModoFalha.INTERROMPER);
+        CountDownLatch segundoIniciado = new CountDownLatch(1);
+        List<Long> concluidos = new CopyOnWriteArrayList<>();
+
+        // When
+        ParallelLotProcessor.ResultadoLotes resultado = processador.processar("ITAU",
+                List.of(lote(0, -1), lote(1, 0)).iterator(), lote -> {
+                    if (lote.posicaoInicial() == 0) {
+                        // O segundo lote não pode começar antes deste terminar
+                        assertFalse(aguardar(segundoIniciado, 200));
+                    } else {
+                        segundoIniciado.countDown();
+                    }
+                    concluidos.add(lote.posicaoInicial());
+                });
+
+        // Then
+        assertEquals(2, resultado.lotesProcessados());
+        assertEquals(List.of(0L, 1L), concluidos);
+    }
+
+    @Test
+    void processar_DeveFalharLoteQueRepeteContas_QuandoLoteAnteriorFalha() {
+        // Given
+        ParallelLotProcessor processador = new ParallelLotProcessor(2, ParallelLotProcessor.ModoFalha.CONTINUAR);
+        List<Long> aplicados = new CopyOnWriteArrayList<>();
+
+        // When
+        ParallelLotProcessor.ResultadoLotes resultado = processador.processar("ITAU",
+                List.of(lote(0, -1), lote(1, 0), lote(2, -1)).iterator(), lote -> {
+                    if (lote.posicaoInicial() == 0) throw new IllegalStateException("lote 0");
+                    aplicados.add(lote.posicaoInicial());
+                });
+
+        // Then
+        assertEquals(List.of(2L), aplicados);
+        assertEquals(List.of(0L, 1L), resultado.falhas().stream().map(ParallelLotProcessor.FalhaLote::lote).toList());
+    }
+
+    private static ParallelLotProcessor.Lote<String> lote(long posicao, long aguardarAte) {
+        return new ParallelLotProcessor.Lote<>(posicao, List.of("conta-" + posicao), aguardarAte);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        assertTrue(aguardar(latch, 5_000));
+    }
+
+    private static boolean aguardar(CountDownLatch latch, long ms) {
+        try {
+            return latch.await(ms, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/*
+ * RowBinder.java - Vincula os valores de um item aos parâmetros de uma linha
+ */
+
+package com.example.batchimport;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowBinder<T> {
+
+    /**
+     * Preenche os parâmetros da linha a partir de {@code primeiroParametro}
+     * (base 1), na ordem das colunas parametrizadas do comando.
+     */
+    void vincular(PreparedStatement ps, int primeiroParametro, T item) throws SQLException;
+}
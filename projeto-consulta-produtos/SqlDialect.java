@@ -0,0 +1,54 @@
+/*
+ * SqlDialect.java - Bancos suportados pelo SQL do import
+ *
+ * O limite de parâmetros é o de um comando preparado: 65.535 no MySQL,
+ * 32.767 no PostgreSQL (contador de 16 bits do protocolo); o H2 não tem
+ * limite fixo e usa o do PostgreSQL.
+ */
+
+package com.example.batchimport;
+
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+
+public enum SqlDialect {
+
+    MYSQL(65_535),
+    POSTGRESQL(32_767),
+    H2(32_767);
+
+    private final int limiteParametros;
+
+    SqlDialect(int limiteParametros) {
+        this.limiteParametros = limiteParametros;
+    }
+
+    public int getLimiteParametros() {
+        return limiteParametros;
+    }
+
+    /**
+     * Dialeto pelo nome do produto informado pelo driver.
+     */
+    public static SqlDialect detectar(DataSource dataSource) {
+        String produto;
+        try {
+            produto = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Não foi possível identificar o banco do import", e);
+        }
+        return deProduto(produto);
+    }
+
+    static SqlDialect deProduto(String produto) {
+        String nome = produto != null ? produto.toLowerCase(Locale.ROOT) : "";
+        if (nome.contains("mysql") || nome.contains("mariadb")) return MYSQL;
+        if (nome.contains("postgresql")) return POSTGRESQL;
+        if (nome.equals("h2")) return H2;
+        throw new IllegalStateException("Banco não suportado pelo import: " + produto);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * StreamFiles.java - Abertura dos arquivos de entrada do import
+ */
+
+package com.example.batchimport;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+final class StreamFiles {
+
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private StreamFiles() {
+    }
+
+    /**
+     * Abre o arquivo para leitura sequencial; arquivos .gz são descompactados
+     * durante a leitura.
+     */
+    static InputStream abrir(Path arquivo) {
+        try {
+            InputStream entrada = new BufferedInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER);
+            return arquivo.getFileName().toString().endsWith(".gz")
+                    ? new BufferedInputStream(new GZIPInputStream(entrada, TAMANHO_BUFFER), TAMANHO_BUFFER)
+                    : entrada;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir " + arquivo, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * TextLineSource.java - Um valor por linha (ex.: ids de contas revogadas)
+ */
+
+package com.example.batchimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+public class TextLineSource implements ImportSource<String> {
+
+    private final String descricao;
+    private final BufferedReader leitor;
+    private String proxima;
+
+    public TextLineSource(Path arquivo) {
+        this.descricao = arquivo.toString();
+        this.leitor = new BufferedReader(new InputStreamReader(StreamFiles.abrir(arquivo), StandardCharsets.UTF_8));
+        this.proxima = ler();
+    }
+
+    @Override
+    public String descricao() {
+        return descricao;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return proxima != null;
+    }
+
+    @Override
+    public String next() {
+        if (proxima == null) throw new NoSuchElementException();
+        String atual = proxima;
+        proxima = ler();
+        return atual;
+    }
+
+    @Override
+    public void close() {
+        try {
+            leitor.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String ler() {
+        try {
+            String linha;
+            do {
+                linha = leitor.readLine();
+            } while (linha != null && linha.isBlank());
+            return linha != null ? linha.trim() : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro lendo " + descricao, e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * UpsertBindingBenchmark.java - Custo e alocação da vinculação dos upserts
+ *
+ * Compara, em um lote de contas sobre H2 em memória:
+ *  - mapaPorLinha: caminho anterior, um MapSqlParameterSource por linha e
+ *    SQL nomeado (NamedParameterJdbcTemplate.batchUpdate)
+ *  - binderLinhaALinha: RowBinder posicional, um comando por linha em batch
+ *    (isola o custo da vinculação)
+ *  - binderMultiLinha: RowBinder posicional em comandos multi-linha
+ *    (UpsertExecutor, como no import)
+ *
+ * Alocação por operação com o profiler de GC do JMH (gc.alloc.rate.norm):
+ *
+ *   mvn -f importacao/pom.xml -Pbenchmark test-compile exec:exec \
+ *       -Djmh.filtro=UpsertBindingBenchmark -Djmh.argumentos="-prof gc"
+ */
+
+package com.example.batchimport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpsertBindingBenchmark {
+
+    private static final UpsertCommand DETALHES = UpsertCommand.tabela("conta_detalhes")
+            .colunas("conta_id", "campo1", "campo2")
+            .chave("conta_id")
+            .atualizar("campo1", "campo2")
+            .build();
+
+    private static final String SQL_NOMEADO = "MERGE INTO conta_detalhes (conta_id, campo1, campo2) KEY (conta_id) "
+            + "VALUES (:contaId, :campo1, :campo2)";
+
+    private static final RowBinder<ImportContasBatchService.AccountDTO> BINDER_DETALHES = (ps, i, a) -> {
+        ImportContasBatchService.DetalheDTO d = a.detalhe();
+        ps.setString(i, a.codIdtConta());
+        ps.setString(i + 1, d != null ? d.campo1() : null);
+        ps.setString(i + 2, d != null ? d.campo2() : null);
+    };
+
+    @Param({"500", "5000"})
+    private int tamanhoLote;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcNomeado;
+    private UpsertExecutor linhaALinha;
+    private UpsertExecutor multiLinha;
+    private List<ImportContasBatchService.AccountDTO> lote;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:upsert-binding;DB_CLOSE_DELAY=-1", true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS conta_detalhes (conta_id VARCHAR(64) PRIMARY KEY, "
+                + "campo1 VARCHAR(100), campo2 VARCHAR(100))");
+
+        jdbcNomeado = new NamedParameterJdbcTemplate(jdbc);
+        linhaALinha = new UpsertExecutor(jdbc, SqlDialect.H2, 1);
+        multiLinha = new UpsertExecutor(jdbc, SqlDialect.H2, 1000);
+
+        lote = new ArrayList<>(tamanhoLote);
+        for (int i = 0; i < tamanhoLote; i++) {
+            lote.add(new ImportContasBatchService.AccountDTO("conta-" + i, (long) i,
+                    new ImportContasBatchService.DetalheDTO("campo1-" + i, "campo2-" + i), null));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        new JdbcTemplate(dataSource).execute("DROP TABLE conta_detalhes");
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int[] mapaPorLinha() {
+        List<SqlParameterSource> batch = new ArrayList<>();
+        for (ImportContasBatchService.AccountDTO a : lote) {
+            ImportContasBatchService.DetalheDTO d = a.detalhe();
+            batch.add(new MapSqlParameterSource()
+                    .addValue("contaId", a.codIdtConta())
+                    .addValue("campo1", d != null ? d.campo1() : null)
+                    .addValue("campo2", d != null ? d.campo2() : null));
+        }
+        return jdbcNomeado.batchUpdate(SQL_NOMEADO, batch.toArray(SqlParameterSource[]::new));
+    }
+
+    @Benchmark
+    public int binderLinhaALinha() {
+        return linhaALinha.executar(DETALHES, lote, ImportContasBatchService.AccountDTO::codIdtConta, BINDER_DETALHES);
+    }
+
+    @Benchmark
+    public int binderMultiLinha() {
+        return multiLinha.executar(DETALHES, lote, ImportContasBatchService.AccountDTO::codIdtConta, BINDER_DETALHES);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * UpsertCommand.java - Upsert de uma tabela, com o SQL gerado por dialeto
+ *
+ * Colunas parametrizadas (na ordem dos valores de cada linha), colunas com
+ * expressão fixa (ex.: NOW()), chave de conflito e colunas atualizadas
+ * quando a linha já existe. Cada comando leva várias linhas em um único
+ * VALUES:
+ *  - MYSQL:      INSERT ... ON DUPLICATE KEY UPDATE c = VALUES(c)
+ *                (INSERT IGNORE quando nada é atualizado)
+ *  - POSTGRESQL: INSERT ... ON CONFLICT (chave) DO UPDATE SET c = EXCLUDED.c
+ *                (DO NOTHING quando nada é atualizado)
+ *  - H2:         MERGE INTO ... KEY (chave) VALUES ..., que atualiza todas
+ *                as colunas fora da chave
+ */
+
+package com.example.batchimport;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+public final class UpsertCommand {
+
+    private final String tabela;
+    private final List<String> colunas;
+    private final Map<String, String> expressoes;
+    private final List<String> chave;
+    private final Set<String> atualizadas;
+
+    private UpsertCommand(Builder builder) {
+        this.tabela = builder.tabela;
+        this.colunas = List.copyOf(builder.colunas);
+        this.expressoes = new LinkedHashMap<>(builder.expressoes);
+        this.chave = List.copyOf(builder.chave);
+        this.atualizadas = new LinkedHashSet<>(builder.atualizadas);
+
+        if (colunas.isEmpty() || chave.isEmpty()) {
+            throw new IllegalArgumentException("Upsert de " + tabela + " sem colunas ou sem chave");
+        }
+        for (String coluna : chave) {
+            if (!colunas.contains(coluna)) {
+                throw new IllegalArgumentException("Coluna de chave " + coluna + " não é parametrizada em " + tabela);
+            }
+        }
+        for (String coluna : atualizadas) {
+            if (chave.contains(coluna) || (!colunas.contains(coluna) && !expressoes.containsKey(coluna))) {
+                throw new IllegalArgumentException("Coluna atualizada inválida em " + tabela + ": " + coluna);
+            }
+        }
+    }
+
+    public static Builder tabela(String tabela) {
+        return new Builder(tabela);
+    }
+
+    public String getTabela() {
+        return tabela;
+    }
+
+    public int parametrosPorLinha() {
+        return colunas.size();
+    }
+
+    /**
+     * Upsert de {@code linhas} linhas.
+     */
+    public String sql(SqlDialect dialeto, int linhas) {
+        StringBuilder sql = new StringBuilder(64 + linhas * (colunas.size() * 3 + 4));
+        switch (dialeto) {
+            case MYSQL -> {
+                sql.append(atualizadas.isEmpty() ? "INSERT IGNORE INTO " : "INSERT INTO ");
+                cabecalho(sql);
+                valores(sql, linhas);
+                if (!atualizadas.isEmpty()) {
+                    sql.append(" ON DUPLICATE KEY UPDATE ");
+                    atribuicoes(sql, c -> "VALUES(" + c + ")");
+                }
+            }
+            case POSTGRESQL -> {
+                sql.append("INSERT INTO ");
+                cabecalho(sql);
+                valores(sql, linhas);
+                sql.append(" ON CONFLICT (").append(String.join(", ", chave)).append(')');
+                if (atualizadas.isEmpty()) {
+                    sql.append(" DO NOTHING");
+                } else {
+                    sql.append(" DO UPDATE SET ");
+                    atribuicoes(sql, c -> "EXCLUDED." + c);
+                }
+            }
+            case H2 -> {
+                if (!atualizadas.equals(new LinkedHashSet<>(colunasForaDaChave()))) {
+                    throw new UnsupportedOperationException("MERGE do H2 atualiza todas as colunas fora da chave; "
+                            + tabela + " atualiza apenas " + atualizadas);
+                }
+                sql.append("MERGE INTO ");
+                cabecalho(sql);
+                sql.append(" KEY (").append(String.join(", ", chave)).append(')');
+                valores(sql, linhas);
+            }
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Inserção só das linhas cuja chave não existe, sem atualizar as demais:
+     *  - MYSQL: INSERT IGNORE, das linhas já filtradas por uma consulta
+     *    travada (a contagem total confere que todas entraram)
+     *  - POSTGRESQL: ON CONFLICT DO NOTHING RETURNING com a chave inserida
+     *  - H2: INSERT simples, das linhas já filtradas por uma consulta
+     */
+    public String sqlInserirAusentes(SqlDialect dialeto, int linhas) {
+        StringBuilder sql = new StringBuilder(64 + linhas * (colunas.size() * 3 + 4));
+        switch (dialeto) {
+            case MYSQL -> {
+                sql.append("INSERT IGNORE INTO ");
+                cabecalho(sql);
+                valores(sql, linhas);
+            }
+            case POSTGRESQL -> {
+                sql.append("INSERT INTO ");
+                cabecalho(sql);
+                valores(sql, linhas);
+                sql.append(" ON CONFLICT (").append(String.join(", ", chave)).append(") DO NOTHING RETURNING ")
+                        .append(String.join(", ", chave));
+            }
+            case H2 -> {
+                sql.append("INSERT INTO ");
+                cabecalho(sql);
+                valores(sql, linhas);
+            }
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Consulta, com FOR UPDATE, das chaves já existentes entre {@code linhas}
+     * chaves (apenas chave de uma coluna).
+     */
+    public String sqlChavesExistentes(int linhas) {
+        if (chave.size() != 1) {
+            throw new UnsupportedOperationException("Consulta de chaves existentes exige chave de uma coluna: " + tabela);
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(chave.get(0)).append(" FROM ").append(tabela)
+                .append(" WHERE ").append(chave.get(0)).append(" IN (");
+        for (int i = 0; i < linhas; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(") FOR UPDATE").toString();
+    }
+
+    private void cabecalho(StringBuilder sql) {
+        sql.append(tabela).append(" (").append(String.join(", ", colunas));
+        for (String coluna : expressoes.keySet()) {
+            sql.append(", ").append(coluna);
+        }
+        sql.append(')');
+    }
+
+    private void valores(StringBuilder sql, int linhas) {
+        StringBuilder linha = new StringBuilder("(");
+        for (int i = 0; i < colunas.size(); i++) {
+            linha.append(i == 0 ? "?" : ", ?");
+        }
+        for (String expressao : expressoes.values()) {
+            linha.append(", ").append(expressao);
+        }
+        linha.append(')');
+
+        sql.append(" VALUES ");
+        for (int i = 0; i < linhas; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(linha);
+        }
+    }
+
+    private void atribuicoes(StringBuilder sql, UnaryOperator<String> valorNovo) {
+        boolean primeira = true;
+        for (String coluna : atualizadas) {
+            if (!primeira) sql.append(", ");
+            primeira = false;
+            String expressao = expressoes.get(coluna);
+            sql.append(coluna).append(" = ").append(expressao != null ? expressao : valorNovo.apply(coluna));
+        }
+    }
+
+    private List<String> colunasForaDaChave() {
+        List<String> resultado = new ArrayList<>();
+        for (String coluna : colunas) {
+            if (!chave.contains(coluna)) resultado.add(coluna);
+        }
+        resultado.addAll(expressoes.keySet());
+        return resultado;
+    }
+
+    public static final class Builder {
+
+        private final String tabela;
+        private final List<String> colunas = new ArrayList<>();
+        private final Map<String, String> expressoes = new LinkedHashMap<>();
+        private final List<String> chave = new ArrayList<>();
+        private final Set<String> atualizadas = new LinkedHashSet<>();
+
+        private Builder(String tabela) {
+            this.tabela = tabela;
+        }
+
+        /** Colunas parametrizadas, na ordem dos valores de cada linha. */
+        public Builder colunas(String... nomes) {
+            colunas.addAll(List.of(nomes));
+            return this;
+        }
+
+        /** Coluna com valor fixo em SQL (ex.: NOW()). */
+        public Builder expressao(String coluna, String sql) {
+            expressoes.put(coluna, sql);
+            return this;
+        }
+
+        public Builder chave(String... nomes) {
+            chave.addAll(List.of(nomes));
+            return this;
+        }
+
+        /** Colunas atualizadas quando a chave já existe. */
+        public Builder atualizar(String... nomes) {
+            atualizadas.addAll(List.of(nomes));
+            return this;
+        }
+
+        public UpsertCommand build() {
+            return new UpsertCommand(this);
+        }
+    }
+}
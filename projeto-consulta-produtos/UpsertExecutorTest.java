@@ -0,0 +1,190 @@
+/*
+ * UpsertExecutorTest.java - Upserts multi-linha contra H2 em memória e SQL
+ * gerado para MySQL e PostgreSQL
+ */
+
+package com.example.batchimport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpsertExecutorTest {
+
+    private static final UpsertCommand CONTAS = UpsertCommand.tabela("contas")
+            .colunas("cod_idt_conta", "tipo")
+            .expressao("datahora_criacao", "NOW()")
+            .chave("cod_idt_conta")
+            .build();
+    private static final UpsertCommand DETALHES = UpsertCommand.tabela("conta_detalhes")
+            .colunas("conta_id", "campo1", "campo2")
+            .chave("conta_id")
+            .atualizar("campo1", "campo2")
+            .build();
+    private static final UpsertCommand USUARIO_CONTA = UpsertCommand.tabela("usuario_conta")
+            .colunas("usuario_id", "conta_id")
+            .chave("usuario_id", "conta_id")
+            .build();
+
+    private static final RowBinder<Long> USUARIO_C1 = (ps, i, usuario) -> {
+        ps.setLong(i, usuario);
+        ps.setString(i + 1, "c1");
+    };
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:upsert-executor;DB_CLOSE_DELAY=-1"));
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.execute("CREATE TABLE contas (cod_idt_conta VARCHAR(64) PRIMARY KEY, tipo VARCHAR(10), "
+                + "datahora_criacao TIMESTAMP)");
+        jdbc.execute("CREATE TABLE conta_detalhes (conta_id VARCHAR(64) PRIMARY KEY, campo1 VARCHAR(100), "
+                + "campo2 VARCHAR(100))");
+        jdbc.execute("CREATE TABLE usuario_conta (usuario_id BIGINT, conta_id VARCHAR(64), "
+                + "PRIMARY KEY (usuario_id, conta_id))");
+    }
+
+    @Test
+    void sql_DeveUsarSintaxeDoDialeto_QuandoMySqlOuPostgreSql() {
+        // When
+        String mysql = DETALHES.sql(SqlDialect.MYSQL, 2);
+        String postgres = DETALHES.sql(SqlDialect.POSTGRESQL, 2);
+        String ignorar = USUARIO_CONTA.sql(SqlDialect.MYSQL, 1);
+
+        // Then
+        assertEquals("INSERT INTO conta_detalhes (conta_id, campo1, campo2) VALUES (?, ?, ?), (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE campo1 = VALUES(campo1), campo2 = VALUES(campo2)", mysql);
+        assertEquals("INSERT INTO conta_detalhes (conta_id, campo1, campo2) VALUES (?, ?, ?), (?, ?, ?) "
+                + "ON CONFLICT (conta_id) DO UPDATE SET campo1 = EXCLUDED.campo1, campo2 = EXCLUDED.campo2", postgres);
+        assertEquals("INSERT IGNORE INTO usuario_conta (usuario_id, conta_id) VALUES (?, ?)", ignorar);
+    }
+
+    @Test
+    void sqlInserirAusentes_DeveUsarInsertIgnoreMultiLinha_QuandoMySql() {
+        // When
+        String sql = CONTAS.sqlInserirAusentes(SqlDialect.MYSQL, 2);
+        String existentes = CONTAS.sqlChavesExistentes(2);
+
+        // Then
+        assertEquals("INSERT IGNORE INTO contas (cod_idt_conta, tipo, datahora_criacao) "
+                + "VALUES (?, ?, NOW()), (?, ?, NOW())", sql);
+        assertEquals("SELECT cod_idt_conta FROM contas WHERE cod_idt_conta IN (?, ?) FOR UPDATE", existentes);
+    }
+
+    @Test
+    void executar_DeveInserirEAtualizar_QuandoH2() {
+        // Given
+        UpsertExecutor executor = new UpsertExecutor(jdbc, SqlDialect.H2, 1000);
+        executor.executar(DETALHES, List.of("c1", "c2"), id -> id, detalhe("a", "b"));
+
+        // When
+        executor.executar(DETALHES, List.of("c2", "c3"), id -> id, detalhe("x", null));
+
+        // Then
+        List<Map<String, Object>> linhas = jdbc.queryForList("SELECT * FROM conta_detalhes ORDER BY conta_id");
+        assertEquals(3, linhas.size());
+        assertEquals("a", linhas.get(0).get("CAMPO1"));
+        assertEquals("x", linhas.get(1).get("CAMPO1"));
+        assertNull(linhas.get(1).get("CAMPO2"));
+        assertEquals("x", linhas.get(2).get("CAMPO1"));
+    }
+
+    @Test
+    void executar_DeveManterUltimaLinha_QuandoChaveRepetidaNoLote() {
+        // Given
+        UpsertExecutor executor = new UpsertExecutor(jdbc, SqlDialect.H2, 1000);
+        List<String[]> detalhes = List.of(new String[]{"c1", "primeiro"}, new String[]{"c1", "ultimo"});
+
+        // When
+        int comandos = executor.executar(DETALHES, detalhes, d -> d[0], (ps, i, d) -> {
+            ps.setString(i, d[0]);
+            ps.setString(i + 1, d[1]);
+            ps.setString(i + 2, null);
+        });
+
+        // Then
+        assertEquals(1, comandos);
+        assertEquals("ultimo", jdbc.queryForObject("SELECT campo1 FROM conta_detalhes WHERE conta_id = 'c1'", String.class));
+    }
+
+    @Test
+    void executar_DeveDividirEmVariosComandos_QuandoPassaDoMaximoDeLinhas() {
+        // Given
+        UpsertExecutor executor = new UpsertExecutor(jdbc, SqlDialect.H2, 2);
+        List<Long> usuarios = List.of(1L, 2L, 3L, 4L, 5L);
+
+        // When
+        int comandos = executor.executar(USUARIO_CONTA, usuarios, null, USUARIO_C1);
+        int repetidos = executor.executar(USUARIO_CONTA, usuarios, null, USUARIO_C1);
+
+        // Then
+        assertEquals(3, comandos);
+        assertEquals(3, repetidos);
+        assertEquals(5, jdbc.queryForObject("SELECT COUNT(*) FROM usuario_conta", Integer.class));
+    }
+
+    @Test
+    void linhasPorComando_DeveRespeitarLimiteDeParametros_QuandoMaximoDeLinhasMaior() {
+        // Given
+        UpsertExecutor executor = new UpsertExecutor(jdbc, SqlDialect.POSTGRESQL, 100_000);
+
+        // When
+        int linhas = executor.linhasPorComando(DETALHES);
+
+        // Then
+        assertEquals(32_767 / 3, linhas);
+    }
+
+    @Test
+    void inserirAusentes_DeveRetornarSoContasNovas_QuandoParteJaExiste() {
+        // Given
+        UpsertExecutor executor = new UpsertExecutor(jdbc, SqlDialect.H2, 1000);
+        executor.inserirAusentes(CONTAS, List.of("c1"), id -> id, conta("ITAU"));
+
+        // When
+        Set<String> inseridas = executor.inserirAusentes(CONTAS, List.of("c1", "c2", "c2", "c3"), id -> id, conta("OPF"));
+
+        // Then
+        assertEquals(Set.of("c2", "c3"), inseridas);
+        assertEquals("ITAU", jdbc.queryForObject("SELECT tipo FROM contas WHERE cod_idt_conta = 'c1'", String.class));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM contas", Integer.class));
+    }
+
+    @Test
+    void inserirAusentes_DeveConsultarEInserirEmPartes_QuandoPassaDoMaximoDeLinhas() {
+        // Given
+        UpsertExecutor executor = new UpsertExecutor(jdbc, SqlDialect.H2, 2);
+        executor.inserirAusentes(CONTAS, List.of("c2", "c4"), id -> id, conta("ITAU"));
+
+        // When
+        Set<String> inseridas = executor.inserirAusentes(CONTAS, List.of("c1", "c2", "c3", "c4", "c5"), id -> id, conta("OPF"));
+
+        // Then
+        assertEquals(Set.of("c1", "c3", "c5"), inseridas);
+        assertEquals(5, jdbc.queryForObject("SELECT COUNT(*) FROM contas", Integer.class));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM contas WHERE tipo = 'ITAU'", Integer.class));
+    }
+
+    private static RowBinder<String> detalhe(String campo1, String campo2) {
+        return (ps, i, id) -> {
+            ps.setString(i, id);
+            ps.setString(i + 1, campo1);
+            ps.setString(i + 2, campo2);
+        };
+    }
+
+    private static RowBinder<String> conta(String tipo) {
+        return (ps, i, id) -> {
+            ps.setString(i, id);
+            ps.setString(i + 1, tipo);
+        };
+    }
+}
@@ -2,6 +2,7 @@ package com.exemplo.consultaprodutos;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 /**
@@ -26,8 +27,16 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @EnableJpaAuditing
 public class ConsultaProdutosApplication {
 
+    /**
+     * Quantidade máxima de etapas de inicialização registradas para o
+     * endpoint /actuator/startup.
+     */
+    private static final int CAPACIDADE_LINHA_DO_TEMPO = 2048;
+
     public static void main(String[] args) {
-        SpringApplication.run(ConsultaProdutosApplication.class, args);
+        SpringApplication application = new SpringApplication(ConsultaProdutosApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(CAPACIDADE_LINHA_DO_TEMPO));
+        application.run(args);
         
         System.out.println("\n" +
             "=================================================================\n" +
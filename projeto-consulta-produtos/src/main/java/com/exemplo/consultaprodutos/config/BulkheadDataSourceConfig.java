@@ -0,0 +1,67 @@
+package com.exemplo.consultaprodutos.config;
+
+import com.exemplo.consultaprodutos.resilience.ClasseEndpoint;
+import com.exemplo.consultaprodutos.resilience.ContextoBulkhead;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Configuração opcional de um sub-pool de conexões dedicado às listagens.
+ *
+ * Quando habilitada, as requisições classificadas como listagem obtêm
+ * conexões de um pool próprio e menor, e as consultas pontuais continuam
+ * no pool principal, configurado por spring.datasource.hikari.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "consultaprodutos.bulkhead.pool-listagem.habilitado", havingValue = "true")
+public class BulkheadDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource poolPrincipal(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource poolListagem(DataSourceProperties properties,
+                                         @Value("${consultaprodutos.bulkhead.pool-listagem.tamanho:4}") int tamanho) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("pool-listagem");
+        pool.setMaximumPoolSize(tamanho);
+        pool.setMinimumIdle(1);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("poolPrincipal") DataSource poolPrincipal,
+                                 @Qualifier("poolListagem") DataSource poolListagem) {
+        ClasseEndpointRoutingDataSource dataSource = new ClasseEndpointRoutingDataSource();
+        dataSource.setDefaultTargetDataSource(poolPrincipal);
+        dataSource.setTargetDataSources(Map.<Object, Object>of(ClasseEndpoint.LISTAGEM, poolListagem));
+        return dataSource;
+    }
+
+    /**
+     * Escolhe o pool pela classe de endpoint da requisição atual; fora de
+     * requisições (ex.: inicialização) usa o pool principal.
+     */
+    static class ClasseEndpointRoutingDataSource extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return ContextoBulkhead.classeAtual();
+        }
+    }
+}
@@ -1,19 +1,75 @@
 package com.exemplo.consultaprodutos.config;
 
+import com.exemplo.consultaprodutos.observability.HibernateStatsIntegrator;
+import com.exemplo.consultaprodutos.observability.HibernateStatsSessionListener;
+import com.exemplo.consultaprodutos.resilience.DeadlineAwareJpaTransactionManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.repository.config.BootstrapMode;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
 
 /**
  * Configuração JPA para habilitar auditoria automática
  * e configurar repositórios.
+ *
+ * Como o @EnableJpaRepositories desliga a autoconfiguração de repositórios
+ * do Boot (e com ela spring.data.jpa.repositories.bootstrap-mode), o modo de
+ * inicialização é escolhido aqui pelo perfil: preguiçoso no fast-startup.
  */
 @Configuration
 @EnableJpaAuditing
-@EnableJpaRepositories(basePackages = "com.exemplo.consultaprodutos.repository")
 public class JpaConfig {
+
+    @Configuration
+    @Profile("!fast-startup")
+    @EnableJpaRepositories(basePackages = "com.exemplo.consultaprodutos.repository")
+    static class Repositorios {
+    }
+
+    @Configuration
+    @Profile("fast-startup")
+    @EnableJpaRepositories(basePackages = "com.exemplo.consultaprodutos.repository", bootstrapMode = BootstrapMode.LAZY)
+    static class RepositoriosSobDemanda {
+    }
+
     // Configuração automática do Spring Boot
     // A auditoria será aplicada automaticamente nas entidades
     // que estendem BaseEntity e usam @EntityListeners(AuditingEntityListener.class)
-}
 
+    /**
+     * Gerenciador de transações que limita o timeout das transações
+     * (e dos comandos SQL) ao prazo restante da requisição.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new DeadlineAwareJpaTransactionManager(entityManagerFactory);
+    }
+
+    /**
+     * Registra os listeners que contam, por requisição, entidades carregadas,
+     * coleções inicializadas, flushes, consultas e acessos ao cache
+     * (ver HibernateStatsFilter).
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateStatsCustomizer(
+            @Value("${consultaprodutos.hibernate-stats.habilitado:true}") boolean habilitado) {
+        return propriedades -> {
+            if (habilitado) {
+                propriedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                        HibernateStatsSessionListener.class.getName());
+                propriedades.put("hibernate.integrator_provider",
+                        (IntegratorProvider) () -> List.of(new HibernateStatsIntegrator()));
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.exemplo.consultaprodutos.controller;
 
+import com.exemplo.consultaprodutos.resilience.CoalescingTimeoutException;
+import com.exemplo.consultaprodutos.resilience.DeadlineExceededException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -41,6 +45,39 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    /**
+     * Trata tempo esgotado aguardando uma leitura compartilhada.
+     */
+    @ExceptionHandler(CoalescingTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleCoalescingTimeoutException(CoalescingTimeoutException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Tempo de espera excedido",
+                ex.getMessage(),
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
+    /**
+     * Trata prazo da requisição esgotado, seja antes de uma etapa ou durante
+     * a execução de um comando SQL (timeout de transação/consulta).
+     */
+    @ExceptionHandler({DeadlineExceededException.class, TransactionTimedOutException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(RuntimeException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Prazo da requisição esgotado",
+                "A requisição não pôde ser concluída dentro do prazo. Tente novamente mais tarde.",
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
     /**
      * Trata exceções de runtime (regras de negócio).
      */
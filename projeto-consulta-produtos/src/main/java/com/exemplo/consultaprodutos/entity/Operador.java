@@ -17,7 +17,7 @@ import java.util.Set;
 @Table(name = "operador", 
        indexes = {
            @Index(name = "idx_operador_email", columnList = "email", unique = true),
-           @Index(name = "idx_operador_ativo", columnList = "ativo")
+           @Index(name = "idx_operador_ativo_nome", columnList = "ativo, nome")
        })
 public class Operador extends BaseEntity {
 
@@ -13,9 +13,9 @@ import java.util.Objects;
 @Entity
 @Table(name = "operador_produto",
        indexes = {
-           @Index(name = "idx_operador_produto_operador", columnList = "operador_id, ativo"),
-           @Index(name = "idx_operador_produto_produto", columnList = "produto_id, ativo"),
-           @Index(name = "idx_operador_produto_data", columnList = "data_associacao")
+           @Index(name = "idx_operador_produto_cobertura", columnList = "operador_id, ativo, produto_id"),
+           @Index(name = "idx_produto_operador_cobertura", columnList = "produto_id, ativo, operador_id"),
+           @Index(name = "idx_operador_produto_ativo_data", columnList = "ativo, data_associacao")
        },
        uniqueConstraints = {
            @UniqueConstraint(name = "uk_operador_produto", columnNames = {"operador_id", "produto_id"})
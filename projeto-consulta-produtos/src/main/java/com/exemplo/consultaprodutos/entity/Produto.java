@@ -16,8 +16,9 @@ import java.util.Set;
 @Table(name = "produto", 
        indexes = {
            @Index(name = "idx_produto_codigo", columnList = "codigo", unique = true),
-           @Index(name = "idx_produto_categoria", columnList = "categoria"),
-           @Index(name = "idx_produto_ativo", columnList = "ativo")
+           @Index(name = "idx_produto_ativo_nome", columnList = "ativo, nome"),
+           @Index(name = "idx_produto_categoria_ativo_nome", columnList = "categoria, ativo, nome"),
+           @Index(name = "idx_produto_ativo_preco", columnList = "ativo, preco")
        })
 public class Produto extends BaseEntity {
 
@@ -0,0 +1,135 @@
+package com.exemplo.consultaprodutos.observability;
+
+import com.exemplo.consultaprodutos.resilience.EndpointClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Mede os bytes alocados por requisição da API a partir do contador de
+ * alocação da thread (com.sun.management.ThreadMXBean), publicados por rota
+ * na métrica alocacao.requisicao.
+ *
+ * Requisições acima de {@code consultaprodutos.alocacao.limite-mb} geram um
+ * WARN e incrementam alocacao.requisicao.acima-limite. Requisições atendidas
+ * por virtual threads, que podem trocar de thread portadora no meio da
+ * requisição, e as de JVMs em que o contador devolve -1 são apenas contadas
+ * em alocacao.requisicao.nao-medida.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class AllocationTrackingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationTrackingFilter.class);
+
+    private final EndpointClassifier endpointClassifier;
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final long limiteBytes;
+
+    @Autowired
+    public AllocationTrackingFilter(EndpointClassifier endpointClassifier,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${consultaprodutos.alocacao.habilitada:true}") boolean habilitada,
+                                    @Value("${consultaprodutos.alocacao.limite-mb:100}") long limiteMb) {
+        this.endpointClassifier = endpointClassifier;
+        this.meterRegistry = meterRegistry;
+        this.threadMXBean = habilitada ? threadMXBeanComAlocacao() : null;
+        this.limiteBytes = limiteMb * 1024 * 1024;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return threadMXBean == null || !endpointClassifier.isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (Thread.currentThread().isVirtual()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                contarNaoMedida(rota(request));
+            }
+            return;
+        }
+
+        long inicio = threadMXBean.getCurrentThreadAllocatedBytes();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long fim = threadMXBean.getCurrentThreadAllocatedBytes();
+            String rota = rota(request);
+            if (inicio < 0 || fim < 0) {
+                contarNaoMedida(rota);
+            } else {
+                registrar(request, rota, fim - inicio);
+            }
+        }
+    }
+
+    private void contarNaoMedida(String rota) {
+        Counter.builder("alocacao.requisicao.nao-medida")
+                .description("Requisições cuja alocação não pôde ser medida (ex.: virtual threads)")
+                .tag("rota", rota)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void registrar(HttpServletRequest request, String rota, long bytes) {
+        DistributionSummary.builder("alocacao.requisicao")
+                .description("Bytes alocados na thread durante a requisição")
+                .baseUnit("bytes")
+                .tag("rota", rota)
+                .register(meterRegistry)
+                .record(bytes);
+
+        if (bytes >= limiteBytes) {
+            Counter.builder("alocacao.requisicao.acima-limite")
+                    .description("Requisições que alocaram acima do limite configurado")
+                    .tag("rota", rota)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Requisição alocou {} MB (limite {} MB): {} {}",
+                    bytes / (1024 * 1024), limiteBytes / (1024 * 1024), rota, request.getRequestURI());
+        }
+    }
+
+    private static String rota(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (padrao != null ? padrao : "desconhecida");
+    }
+
+    /**
+     * @return o ThreadMXBean com a medição de alocação ligada, ou null se a
+     *         JVM não a oferece
+     */
+    private static com.sun.management.ThreadMXBean threadMXBeanComAlocacao() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+                || !bean.isThreadAllocatedMemorySupported()) {
+            log.info("Medição de alocação por thread indisponível nesta JVM");
+            return null;
+        }
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,64 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource que mede a espera por conexões e informa retiradas e devoluções
+ * ao {@link ConnectionAttributionMonitor}.
+ */
+public class ConnectionAttributionDataSource extends DelegatingDataSource {
+
+    private final ConnectionAttributionMonitor monitor;
+
+    public ConnectionAttributionDataSource(DataSource alvo, ConnectionAttributionMonitor monitor) {
+        super(alvo);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = super.getConnection();
+        return registrar(conexao, System.nanoTime() - inicio);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexao = super.getConnection(username, password);
+        return registrar(conexao, System.nanoTime() - inicio);
+    }
+
+    private Connection registrar(Connection conexao, long esperaNanos) {
+        ConnectionAttributionMonitor.Retirada retirada = monitor.registrarRetirada(esperaNanos);
+
+        return (Connection) Proxy.newProxyInstance(ConnectionAttributionDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            yield method.invoke(conexao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            monitor.registrarDevolucao(retirada);
+                        }
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(conexao, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+}
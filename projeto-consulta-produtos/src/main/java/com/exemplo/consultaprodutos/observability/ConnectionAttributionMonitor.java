@@ -0,0 +1,194 @@
+package com.exemplo.consultaprodutos.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Atribui cada retirada de conexão do pool à rota HTTP e ao método de
+ * serviço que a fez, medindo espera pela conexão e tempo de retenção.
+ *
+ * Conexões obtidas durante a renderização da resposta (lazy loading com
+ * open-session-in-view) são atribuídas à origem "open-in-view"; conexões
+ * retiradas antes e ainda retidas durante a renderização têm esse trecho
+ * medido à parte em conexoes.uso.renderizacao.
+ */
+@Component
+public class ConnectionAttributionMonitor {
+
+    /** Atributo da requisição com o instante (nanoTime) do início da renderização. */
+    public static final String ATRIBUTO_INICIO_RENDERIZACAO =
+            ConnectionAttributionMonitor.class.getName() + ".inicioRenderizacao";
+
+    static final String ORIGEM_OPEN_IN_VIEW = "open-in-view";
+    static final String SEM_ROTA = "fora-de-requisicao";
+    static final String SEM_METODO = "desconhecido";
+
+    private static final String PACOTE_SERVICOS = "com.exemplo.consultaprodutos.service.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final int MAX_FRAMES_RETENCAO = 40;
+
+    private final ConcurrentHashMap<Long, Retirada> retiradasAbertas = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final MeterRegistry meterRegistry;
+    private final long limiteRetencaoNanos;
+
+    @Autowired
+    public ConnectionAttributionMonitor(MeterRegistry meterRegistry,
+                                        @Value("${consultaprodutos.conexoes.limite-retencao-ms:2000}") long limiteRetencaoMs) {
+        this.meterRegistry = meterRegistry;
+        this.limiteRetencaoNanos = TimeUnit.MILLISECONDS.toNanos(limiteRetencaoMs);
+    }
+
+    /**
+     * Registra uma conexão entregue pelo pool após a espera informada.
+     */
+    public Retirada registrarRetirada(long esperaNanos) {
+        HttpServletRequest request = requestAtual();
+        String rota = request != null ? RotaAtual.descrever() : null;
+        String metodo = request != null && request.getAttribute(ATRIBUTO_INICIO_RENDERIZACAO) != null
+                ? ORIGEM_OPEN_IN_VIEW
+                : metodoDeServico();
+
+        Retirada retirada = new Retirada(sequencia.incrementAndGet(),
+                rota != null ? rota : SEM_ROTA,
+                metodo != null ? metodo : SEM_METODO,
+                Thread.currentThread(),
+                System.nanoTime());
+
+        timer("conexoes.espera", "Espera pela conexão do pool", retirada)
+                .record(esperaNanos, TimeUnit.NANOSECONDS);
+        retiradasAbertas.put(retirada.id, retirada);
+        return retirada;
+    }
+
+    /**
+     * Registra a devolução da conexão ao pool.
+     */
+    public void registrarDevolucao(Retirada retirada) {
+        if (retiradasAbertas.remove(retirada.id) == null) {
+            return;
+        }
+
+        long agora = System.nanoTime();
+        timer("conexoes.uso", "Tempo de retenção da conexão", retirada)
+                .record(agora - retirada.inicioNanos, TimeUnit.NANOSECONDS);
+
+        HttpServletRequest request = requestAtual();
+        Object inicioRenderizacao = request != null ? request.getAttribute(ATRIBUTO_INICIO_RENDERIZACAO) : null;
+        if (inicioRenderizacao instanceof Long inicio && inicio > retirada.inicioNanos
+                && !ORIGEM_OPEN_IN_VIEW.equals(retirada.metodo)) {
+            Timer.builder("conexoes.uso.renderizacao")
+                    .description("Tempo em que uma conexão retirada pelo serviço ficou retida durante a renderização")
+                    .tag("rota", retirada.rota)
+                    .register(meterRegistry)
+                    .record(agora - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Conexões retidas há mais tempo que o limite configurado, com a pilha
+     * atual da thread que as detém.
+     */
+    public List<RetencaoLonga> retencoesLongas() {
+        long agora = System.nanoTime();
+        return retiradasAbertas.values().stream()
+                .filter(retirada -> agora - retirada.inicioNanos >= limiteRetencaoNanos)
+                .sorted(Comparator.comparingLong(retirada -> retirada.inicioNanos))
+                .map(retirada -> new RetencaoLonga(
+                        retirada.rota,
+                        retirada.metodo,
+                        retirada.thread.getName(),
+                        Instant.now().minusNanos(agora - retirada.inicioNanos),
+                        TimeUnit.NANOSECONDS.toMillis(agora - retirada.inicioNanos),
+                        Arrays.stream(retirada.thread.getStackTrace())
+                                .limit(MAX_FRAMES_RETENCAO)
+                                .map(StackTraceElement::toString)
+                                .toList()))
+                .toList();
+    }
+
+    public int getRetiradasAbertas() {
+        return retiradasAbertas.size();
+    }
+
+    public long getLimiteRetencaoMs() {
+        return TimeUnit.NANOSECONDS.toMillis(limiteRetencaoNanos);
+    }
+
+    private Timer timer(String nome, String descricao, Retirada retirada) {
+        return Timer.builder(nome)
+                .description(descricao)
+                .tag("rota", retirada.rota)
+                .tag("metodo", retirada.metodo)
+                .register(meterRegistry);
+    }
+
+    private static HttpServletRequest requestAtual() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos
+                ? atributos.getRequest()
+                : null;
+    }
+
+    /**
+     * Método de serviço mais próximo da retirada na pilha atual. A conexão é
+     * obtida pelo interceptor transacional, antes do método alvo, por isso o
+     * quadro encontrado costuma ser o do proxy CGLIB do serviço.
+     */
+    private static String metodoDeServico() {
+        return STACK_WALKER.walk(quadros -> quadros
+                .filter(quadro -> quadro.getClassName().startsWith(PACOTE_SERVICOS))
+                .findFirst()
+                .map(quadro -> nomeSimples(quadro.getClassName()) + "." + quadro.getMethodName())
+                .orElse(null));
+    }
+
+    private static String nomeSimples(String nomeClasse) {
+        int proxy = nomeClasse.indexOf("$$");
+        String semProxy = proxy >= 0 ? nomeClasse.substring(0, proxy) : nomeClasse;
+        return semProxy.substring(semProxy.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Uma conexão retirada do pool e ainda não devolvida.
+     */
+    public static final class Retirada {
+
+        private final long id;
+        private final String rota;
+        private final String metodo;
+        private final Thread thread;
+        private final long inicioNanos;
+
+        Retirada(long id, String rota, String metodo, Thread thread, long inicioNanos) {
+            this.id = id;
+            this.rota = rota;
+            this.metodo = metodo;
+            this.thread = thread;
+            this.inicioNanos = inicioNanos;
+        }
+    }
+
+    public record RetencaoLonga(
+            String rota,
+            String metodo,
+            String thread,
+            Instant retiradaEm,
+            long retidaHaMs,
+            List<String> pilhaAtual
+    ) {
+    }
+}
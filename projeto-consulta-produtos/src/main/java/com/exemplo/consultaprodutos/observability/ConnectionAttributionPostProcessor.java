@@ -0,0 +1,37 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource principal em um {@link ConnectionAttributionDataSource}.
+ *
+ * Assim como no log de consultas lentas, apenas o bean "dataSource" é
+ * envolvido, o que cobre também o DataSource de roteamento dos bulkheads.
+ */
+@Component
+public class ConnectionAttributionPostProcessor implements BeanPostProcessor {
+
+    private static final String NOME_DATA_SOURCE = "dataSource";
+
+    private final ObjectProvider<ConnectionAttributionMonitor> monitor;
+
+    @Autowired
+    public ConnectionAttributionPostProcessor(ObjectProvider<ConnectionAttributionMonitor> monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+                && NOME_DATA_SOURCE.equals(beanName)
+                && !(bean instanceof ConnectionAttributionDataSource)) {
+            return new ConnectionAttributionDataSource(dataSource, monitor.getObject());
+        }
+        return bean;
+    }
+}
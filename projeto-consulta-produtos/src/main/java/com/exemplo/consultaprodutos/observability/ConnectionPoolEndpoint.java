@@ -0,0 +1,101 @@
+package com.exemplo.consultaprodutos.observability;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint do Actuator (/actuator/conexoes) com o estado dos pools, o uso de
+ * conexões por rota e método de serviço e as retenções longas em andamento.
+ */
+@Component
+@Endpoint(id = "conexoes")
+public class ConnectionPoolEndpoint {
+
+    private final MeterRegistry meterRegistry;
+    private final ConnectionAttributionMonitor monitor;
+
+    @Autowired
+    public ConnectionPoolEndpoint(MeterRegistry meterRegistry, ConnectionAttributionMonitor monitor) {
+        this.meterRegistry = meterRegistry;
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public RelatorioConexoes relatorio() {
+        return new RelatorioConexoes(pools(), usoPorOrigem(), monitor.getLimiteRetencaoMs(), monitor.retencoesLongas());
+    }
+
+    private List<EstadoPool> pools() {
+        return meterRegistry.find("hikaricp.connections").gauges().stream()
+                .map(gauge -> gauge.getId().getTag("pool"))
+                .distinct()
+                .sorted()
+                .map(pool -> new EstadoPool(pool,
+                        valor("hikaricp.connections.active", pool),
+                        valor("hikaricp.connections.idle", pool),
+                        valor("hikaricp.connections.pending", pool),
+                        valor("hikaricp.connections", pool),
+                        valor("hikaricp.connections.max", pool)))
+                .toList();
+    }
+
+    private long valor(String metrica, String pool) {
+        Gauge gauge = meterRegistry.find(metrica).tag("pool", pool).gauge();
+        return gauge != null ? (long) gauge.value() : 0;
+    }
+
+    private List<UsoPorOrigem> usoPorOrigem() {
+        return meterRegistry.find("conexoes.uso").timers().stream()
+                .map(uso -> {
+                    String rota = uso.getId().getTag("rota");
+                    String metodo = uso.getId().getTag("metodo");
+                    Timer espera = meterRegistry.find("conexoes.espera").tag("rota", rota).tag("metodo", metodo).timer();
+                    Timer renderizacao = meterRegistry.find("conexoes.uso.renderizacao").tag("rota", rota).timer();
+                    return new UsoPorOrigem(rota, metodo,
+                            uso.count(),
+                            uso.totalTime(TimeUnit.MILLISECONDS),
+                            uso.max(TimeUnit.MILLISECONDS),
+                            espera != null ? espera.totalTime(TimeUnit.MILLISECONDS) : 0.0,
+                            espera != null ? espera.max(TimeUnit.MILLISECONDS) : 0.0,
+                            renderizacao != null ? renderizacao.totalTime(TimeUnit.MILLISECONDS) : 0.0);
+                })
+                .sorted(Comparator.comparingDouble(UsoPorOrigem::usoTotalMs).reversed())
+                .toList();
+    }
+
+    public record RelatorioConexoes(
+            List<EstadoPool> pools,
+            List<UsoPorOrigem> usoPorOrigem,
+            long limiteRetencaoMs,
+            List<ConnectionAttributionMonitor.RetencaoLonga> retencoesLongas
+    ) {
+    }
+
+    public record EstadoPool(String pool, long ativas, long ociosas, long pendentes, long total, long maximo) {
+    }
+
+    /**
+     * Uso de conexões por rota e método de serviço. O tempo de renderização
+     * é agregado por rota e se repete nas linhas de uma mesma rota.
+     */
+    public record UsoPorOrigem(
+            String rota,
+            String metodo,
+            long retiradas,
+            double usoTotalMs,
+            double usoMaximoMs,
+            double esperaTotalMs,
+            double esperaMaximaMs,
+            double retidoNaRenderizacaoMs
+    ) {
+    }
+}
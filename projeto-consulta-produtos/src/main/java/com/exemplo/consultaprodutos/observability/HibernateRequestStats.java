@@ -0,0 +1,107 @@
+package com.exemplo.consultaprodutos.observability;
+
+/**
+ * Contadores de atividade do Hibernate na requisição atual.
+ *
+ * Preenchidos pelos listeners registrados em {@link HibernateStatsIntegrator}
+ * e {@link HibernateStatsSessionListener}; fora de requisições da API não há
+ * contadores associados à thread e os eventos são ignorados.
+ */
+public final class HibernateRequestStats {
+
+    private static final ThreadLocal<HibernateRequestStats> ATUAL = new ThreadLocal<>();
+
+    private int entidadesCarregadas;
+    private int colecoesCarregadas;
+    private int flushes;
+    private int consultas;
+    private int cacheAcertos;
+    private int cacheFalhas;
+
+    static HibernateRequestStats atual() {
+        return ATUAL.get();
+    }
+
+    static void definir(HibernateRequestStats stats) {
+        ATUAL.set(stats);
+    }
+
+    static void limpar() {
+        ATUAL.remove();
+    }
+
+    static void entidadeCarregada() {
+        HibernateRequestStats stats = ATUAL.get();
+        if (stats != null) {
+            stats.entidadesCarregadas++;
+        }
+    }
+
+    static void colecaoCarregada() {
+        HibernateRequestStats stats = ATUAL.get();
+        if (stats != null) {
+            stats.colecoesCarregadas++;
+        }
+    }
+
+    static void flush() {
+        HibernateRequestStats stats = ATUAL.get();
+        if (stats != null) {
+            stats.flushes++;
+        }
+    }
+
+    static void consulta() {
+        HibernateRequestStats stats = ATUAL.get();
+        if (stats != null) {
+            stats.consultas++;
+        }
+    }
+
+    static void cache(boolean acerto) {
+        HibernateRequestStats stats = ATUAL.get();
+        if (stats != null) {
+            if (acerto) {
+                stats.cacheAcertos++;
+            } else {
+                stats.cacheFalhas++;
+            }
+        }
+    }
+
+    public int getEntidadesCarregadas() {
+        return entidadesCarregadas;
+    }
+
+    public int getColecoesCarregadas() {
+        return colecoesCarregadas;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    public int getConsultas() {
+        return consultas;
+    }
+
+    public int getCacheAcertos() {
+        return cacheAcertos;
+    }
+
+    public int getCacheFalhas() {
+        return cacheFalhas;
+    }
+
+    /**
+     * Representação usada no cabeçalho de depuração.
+     */
+    String descrever() {
+        return "entidades=" + entidadesCarregadas
+                + ";colecoes=" + colecoesCarregadas
+                + ";flushes=" + flushes
+                + ";consultas=" + consultas
+                + ";cache-acertos=" + cacheAcertos
+                + ";cache-falhas=" + cacheFalhas;
+    }
+}
@@ -0,0 +1,111 @@
+package com.exemplo.consultaprodutos.observability;
+
+import com.exemplo.consultaprodutos.resilience.EndpointClassifier;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Coleta, por requisição da API, as estatísticas do Hibernate (entidades
+ * carregadas, coleções inicializadas, flushes, consultas e acessos ao cache
+ * de segundo nível) e as agrega por rota nas métricas hibernate.requisicao.*.
+ *
+ * Com o cabeçalho {@value #CABECALHO_DEPURACAO} na requisição, os contadores
+ * também são devolvidos no cabeçalho {@value #CABECALHO_ESTATISTICAS}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class HibernateStatsFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_DEPURACAO = "X-Debug-Hibernate";
+    public static final String CABECALHO_ESTATISTICAS = "X-Hibernate-Stats";
+
+    /**
+     * Atributo da requisição com os contadores a devolver no cabeçalho; só é
+     * definido quando a depuração foi pedida.
+     */
+    static final String ATRIBUTO_DEPURACAO = HibernateStatsFilter.class.getName() + ".DEPURACAO";
+
+    private final EndpointClassifier endpointClassifier;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final boolean cabecalhoHabilitado;
+
+    @Autowired
+    public HibernateStatsFilter(EndpointClassifier endpointClassifier,
+                                MeterRegistry meterRegistry,
+                                @Value("${consultaprodutos.hibernate-stats.habilitado:true}") boolean habilitado,
+                                @Value("${consultaprodutos.hibernate-stats.cabecalho-habilitado:false}") boolean cabecalhoHabilitado) {
+        this.endpointClassifier = endpointClassifier;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.cabecalhoHabilitado = cabecalhoHabilitado;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !endpointClassifier.isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        HibernateRequestStats stats = new HibernateRequestStats();
+        HibernateRequestStats.definir(stats);
+        if (cabecalhoHabilitado && request.getHeader(CABECALHO_DEPURACAO) != null) {
+            request.setAttribute(ATRIBUTO_DEPURACAO, stats);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            HibernateRequestStats.limpar();
+            registrarMetricas(request, stats);
+
+            // Respostas sem corpo não passam pelo HibernateStatsHeaderAdvice
+            if (request.getAttribute(ATRIBUTO_DEPURACAO) != null && !response.isCommitted()) {
+                response.setHeader(CABECALHO_ESTATISTICAS, stats.descrever());
+            }
+        }
+    }
+
+    private void registrarMetricas(HttpServletRequest request, HibernateRequestStats stats) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String rota = request.getMethod() + " " + (padrao != null ? padrao : "desconhecida");
+
+        resumo("hibernate.requisicao.entidades", "Entidades carregadas por requisição", rota)
+                .record(stats.getEntidadesCarregadas());
+        resumo("hibernate.requisicao.colecoes", "Coleções inicializadas por requisição", rota)
+                .record(stats.getColecoesCarregadas());
+        resumo("hibernate.requisicao.flushes", "Flushes da sessão por requisição", rota)
+                .record(stats.getFlushes());
+        resumo("hibernate.requisicao.consultas", "Comandos SQL executados por requisição", rota)
+                .record(stats.getConsultas());
+
+        // Cache de segundo nível só é medido quando está em uso
+        if (stats.getCacheAcertos() + stats.getCacheFalhas() > 0) {
+            resumo("hibernate.requisicao.cache.acertos", "Acertos no cache de segundo nível por requisição", rota)
+                    .record(stats.getCacheAcertos());
+            resumo("hibernate.requisicao.cache.falhas", "Falhas no cache de segundo nível por requisição", rota)
+                    .record(stats.getCacheFalhas());
+        }
+    }
+
+    private DistributionSummary resumo(String nome, String descricao, String rota) {
+        return DistributionSummary.builder(nome)
+                .description(descricao)
+                .tag("rota", rota)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Escreve o cabeçalho {@value HibernateStatsFilter#CABECALHO_ESTATISTICAS}
+ * antes do corpo, quando a depuração foi pedida.
+ *
+ * Depois que o corpo começa a ser escrito a resposta pode já ter sido
+ * enviada; os valores do cabeçalho, portanto, não incluem o lazy loading
+ * disparado pela serialização (que entra nas métricas).
+ */
+@ControllerAdvice
+public class HibernateStatsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(HibernateStatsFilter.ATRIBUTO_DEPURACAO)
+                        instanceof HibernateRequestStats stats) {
+            response.getHeaders().set(HibernateStatsFilter.CABECALHO_ESTATISTICAS, stats.descrever());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,49 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Registra listeners globais que contam entidades carregadas e coleções
+ * inicializadas (lazy loading) na requisição atual.
+ */
+public class HibernateStatsIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registro = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_LOAD, new ContadorEntidades());
+        registro.appendListeners(EventType.INIT_COLLECTION, new ContadorColecoes());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nada a liberar
+    }
+
+    static class ContadorEntidades implements PostLoadEventListener {
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            HibernateRequestStats.entidadeCarregada();
+        }
+    }
+
+    static class ContadorColecoes implements InitializeCollectionEventListener {
+
+        @Override
+        public void onInitializeCollection(InitializeCollectionEvent event) {
+            HibernateRequestStats.colecaoCarregada();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Listener de sessão do Hibernate (hibernate.session.events.auto) que conta
+ * comandos JDBC, flushes e acessos ao cache de segundo nível da requisição.
+ */
+public class HibernateStatsSessionListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        HibernateRequestStats.consulta();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        HibernateRequestStats.flush();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        HibernateRequestStats.cache(hit);
+    }
+}
@@ -0,0 +1,91 @@
+package com.exemplo.consultaprodutos.observability;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gravação JFR contínua iniciada com a aplicação.
+ *
+ * Usa a configuração "default" do JDK (pensada para produção, com overhead
+ * em torno de 1%) acrescida dos eventos da aplicação definidos em
+ * jfr/consulta-produtos.jfc, com retenção limitada por idade e tamanho.
+ */
+@Component
+public class JfrContinuousRecording {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrContinuousRecording.class);
+
+    private static final String CONFIGURACAO_APLICACAO = "jfr/consulta-produtos.jfc";
+
+    private final boolean habilitada;
+    private final Duration idadeMaxima;
+    private final long tamanhoMaximoBytes;
+    private final String destino;
+
+    private Recording gravacao;
+
+    @Autowired
+    public JfrContinuousRecording(@Value("${consultaprodutos.jfr.habilitada:true}") boolean habilitada,
+                                  @Value("${consultaprodutos.jfr.idade-maxima-minutos:60}") long idadeMaximaMinutos,
+                                  @Value("${consultaprodutos.jfr.tamanho-maximo-mb:100}") long tamanhoMaximoMb,
+                                  @Value("${consultaprodutos.jfr.destino:}") String destino) {
+        this.habilitada = habilitada;
+        this.idadeMaxima = Duration.ofMinutes(idadeMaximaMinutos);
+        this.tamanhoMaximoBytes = tamanhoMaximoMb * 1024 * 1024;
+        this.destino = destino;
+    }
+
+    @PostConstruct
+    public void iniciar() throws IOException, ParseException {
+        if (!habilitada || !FlightRecorder.isAvailable()) {
+            return;
+        }
+
+        Map<String, String> configuracao = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader leitor = new InputStreamReader(
+                new ClassPathResource(CONFIGURACAO_APLICACAO).getInputStream(), StandardCharsets.UTF_8)) {
+            configuracao.putAll(Configuration.create(leitor).getSettings());
+        }
+
+        gravacao = new Recording(configuracao);
+        gravacao.setName("consulta-produtos");
+        gravacao.setToDisk(true);
+        gravacao.setMaxAge(idadeMaxima);
+        gravacao.setMaxSize(tamanhoMaximoBytes);
+        if (!destino.isBlank()) {
+            // Grava o conteúdo retido ao encerrar a JVM
+            gravacao.setDestination(Path.of(destino));
+            gravacao.setDumpOnExit(true);
+        }
+        gravacao.start();
+
+        log.info("Gravação JFR contínua iniciada (retenção de {} min / {} MB)",
+                idadeMaxima.toMinutes(), tamanhoMaximoBytes / (1024 * 1024));
+    }
+
+    @PreDestroy
+    public void parar() {
+        if (gravacao != null) {
+            gravacao.close();
+        }
+    }
+}
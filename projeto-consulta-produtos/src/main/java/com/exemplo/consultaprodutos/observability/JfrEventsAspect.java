@@ -0,0 +1,197 @@
+package com.exemplo.consultaprodutos.observability;
+
+import com.exemplo.consultaprodutos.dto.request.AssociacaoRequestDTO;
+import com.exemplo.consultaprodutos.service.OperadorService;
+import com.exemplo.consultaprodutos.service.ProdutoService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emite os eventos JFR de serviços, repositórios e conversões de listas.
+ *
+ * Com o evento desabilitado o custo é o de uma verificação de isEnabled();
+ * os campos (ids, linhas) só são preenchidos quando o evento passa do limite
+ * configurado e vai de fato para a gravação. Executa antes dos demais
+ * aspectos, para que a duração inclua coalescing e transação.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JfrEventsAspect {
+
+    private final ConcurrentHashMap<Method, PosicaoIds> posicoesIds = new ConcurrentHashMap<>();
+
+    @Around("within(com.exemplo.consultaprodutos.service..*) && execution(public * *(..))")
+    public Object registrarServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent evento = new ServiceCallEvent();
+        if (!evento.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        evento.begin();
+        Object resultado = null;
+        boolean sucesso = false;
+        try {
+            resultado = joinPoint.proceed();
+            sucesso = true;
+            return resultado;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                MethodSignature assinatura = (MethodSignature) joinPoint.getSignature();
+                Class<?> classeServico = AopProxyUtils.ultimateTargetClass(joinPoint.getTarget());
+                PosicaoIds posicao = posicoesIds.computeIfAbsent(assinatura.getMethod(),
+                        metodo -> PosicaoIds.de(assinatura, classeServico));
+                evento.servico = classeServico.getSimpleName();
+                evento.metodo = assinatura.getName();
+                evento.operadorId = posicao.operadorId(joinPoint.getArgs());
+                evento.produtoId = posicao.produtoId(joinPoint.getArgs());
+                evento.linhas = contarLinhas(resultado, sucesso);
+                evento.sucesso = sucesso;
+                evento.commit();
+            }
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object registrarRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryQueryEvent evento = new RepositoryQueryEvent();
+        if (!evento.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        evento.begin();
+        Object resultado = null;
+        boolean sucesso = false;
+        try {
+            resultado = joinPoint.proceed();
+            sucesso = true;
+            return resultado;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                MethodSignature assinatura = (MethodSignature) joinPoint.getSignature();
+                PosicaoIds posicao = posicoesIds.computeIfAbsent(assinatura.getMethod(),
+                        metodo -> PosicaoIds.de(assinatura, null));
+                Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+                evento.repositorio = interfaces.length > 0
+                        ? interfaces[0].getSimpleName()
+                        : assinatura.getDeclaringType().getSimpleName();
+                evento.metodo = assinatura.getName();
+                evento.operadorId = posicao.operadorId(joinPoint.getArgs());
+                evento.produtoId = posicao.produtoId(joinPoint.getArgs());
+                evento.linhas = contarLinhas(resultado, sucesso);
+                evento.sucesso = sucesso;
+                evento.commit();
+            }
+        }
+    }
+
+    @Around("execution(java.util.List com.exemplo.consultaprodutos.mapper..*.*(java.util.List))")
+    public Object registrarConversao(ProceedingJoinPoint joinPoint) throws Throwable {
+        MapperConversionEvent evento = new MapperConversionEvent();
+        if (!evento.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        evento.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.mapper = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                evento.metodo = joinPoint.getSignature().getName();
+                evento.itens = joinPoint.getArgs()[0] instanceof List<?> lista ? lista.size() : 0;
+                evento.commit();
+            }
+        }
+    }
+
+    private static long contarLinhas(Object resultado, boolean sucesso) {
+        if (!sucesso) {
+            return -1;
+        }
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado == null || resultado instanceof Number || resultado instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+
+    /**
+     * Posição dos argumentos que identificam operador e produto em um método,
+     * calculada uma vez pelos nomes dos parâmetros.
+     */
+    private record PosicaoIds(int operador, int produto, int associacao) {
+
+        private static final int AUSENTE = -1;
+
+        static PosicaoIds de(MethodSignature assinatura, Class<?> classeServico) {
+            String[] nomes = assinatura.getParameterNames();
+            Class<?>[] tipos = assinatura.getParameterTypes();
+            int operador = AUSENTE;
+            int produto = AUSENTE;
+            int associacao = AUSENTE;
+
+            for (int i = 0; nomes != null && i < nomes.length; i++) {
+                if (tipos[i] == AssociacaoRequestDTO.class) {
+                    associacao = i;
+                } else if (!Number.class.isAssignableFrom(tipos[i]) && !tipos[i].isPrimitive()) {
+                    continue;
+                } else if (nomes[i].equals("operadorId")) {
+                    operador = i;
+                } else if (nomes[i].equals("produtoId")) {
+                    produto = i;
+                } else if (nomes[i].equals("id") && classeServico != null) {
+                    // "id" identifica a entidade do próprio serviço
+                    if (OperadorService.class.isAssignableFrom(classeServico)) {
+                        operador = i;
+                    } else if (ProdutoService.class.isAssignableFrom(classeServico)) {
+                        produto = i;
+                    }
+                }
+            }
+            return new PosicaoIds(operador, produto, associacao);
+        }
+
+        long operadorId(Object[] argumentos) {
+            if (associacao != AUSENTE && argumentos[associacao] instanceof AssociacaoRequestDTO dto) {
+                return valor(dto.primeiraEntidadeId());
+            }
+            return operador != AUSENTE ? valor(argumentos[operador]) : -1;
+        }
+
+        long produtoId(Object[] argumentos) {
+            if (associacao != AUSENTE && argumentos[associacao] instanceof AssociacaoRequestDTO dto) {
+                return valor(dto.segundaEntidadeId());
+            }
+            return produto != AUSENTE ? valor(argumentos[produto]) : -1;
+        }
+
+        private static long valor(Object argumento) {
+            return argumento instanceof Number numero ? numero.longValue() : -1;
+        }
+    }
+}
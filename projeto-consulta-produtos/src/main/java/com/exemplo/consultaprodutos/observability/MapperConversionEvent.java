@@ -0,0 +1,28 @@
+package com.exemplo.consultaprodutos.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma conversão de lista de entidades em Records de resposta.
+ */
+@Name("consultaprodutos.MapperConversion")
+@Label("Conversão de Lista")
+@Description("Conversão de uma lista de entidades por um mapper")
+@Category({"Consulta Produtos", "Mapper"})
+@StackTrace(false)
+public class MapperConversionEvent extends Event {
+
+    @Label("Mapper")
+    String mapper;
+
+    @Label("Método")
+    String metodo;
+
+    @Label("Itens")
+    long itens;
+}
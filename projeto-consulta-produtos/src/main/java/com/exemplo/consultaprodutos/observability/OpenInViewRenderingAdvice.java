@@ -0,0 +1,37 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marca na requisição o início da renderização do corpo da resposta.
+ *
+ * Com open-session-in-view, o lazy loading disparado pela serialização JSON
+ * usa conexões do pool depois que o serviço terminou; a marca permite ao
+ * {@link ConnectionAttributionMonitor} separar esse uso.
+ */
+@ControllerAdvice
+public class OpenInViewRenderingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(
+                    ConnectionAttributionMonitor.ATRIBUTO_INICIO_RENDERIZACAO, System.nanoTime());
+        }
+        return body;
+    }
+}
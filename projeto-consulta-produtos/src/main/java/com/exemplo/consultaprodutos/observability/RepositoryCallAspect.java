@@ -0,0 +1,51 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Registra em {@link RepositoryCallContext} o método de repositório em
+ * execução, usado para atribuir os comandos SQL a quem os originou, e cada
+ * chamada na linha do tempo da requisição, quando amostrada.
+ */
+@Aspect
+@Component
+public class RepositoryCallAspect {
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "|| execution(public * com.exemplo.consultaprodutos.repository.jdbc.*Repository.*(..))")
+    public Object registrarChamada(ProceedingJoinPoint joinPoint) throws Throwable {
+        String metodo = nomeMetodo(joinPoint);
+        boolean definido = RepositoryCallContext.definir(metodo);
+        long inicio = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (definido) {
+                RepositoryCallContext.limpar();
+                RequestTimeline.registrar(RequestTimeline.Camada.REPOSITORIO, metodo, inicio);
+            }
+        }
+    }
+
+    private String nomeMetodo(ProceedingJoinPoint joinPoint) {
+        // Repositórios JDBC são classes (proxy CGLIB, sem interfaces)
+        if (!Proxy.isProxyClass(joinPoint.getThis().getClass())) {
+            return AopProxyUtils.ultimateTargetClass(joinPoint.getTarget()).getSimpleName()
+                    + "." + joinPoint.getSignature().getName();
+        }
+
+        // Métodos herdados (findById, save...) são declarados em CrudRepository;
+        // a interface do proxy identifica o repositório de fato
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        String repositorio = interfaces.length > 0
+                ? interfaces[0].getSimpleName()
+                : joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return repositorio + "." + joinPoint.getSignature().getName();
+    }
+}
@@ -0,0 +1,34 @@
+package com.exemplo.consultaprodutos.observability;
+
+/**
+ * Método de repositório em execução na thread atual.
+ *
+ * Permite atribuir cada comando SQL ao método de repositório que o originou;
+ * em chamadas aninhadas prevalece a mais externa.
+ */
+public final class RepositoryCallContext {
+
+    private static final ThreadLocal<String> METODO_ATUAL = new ThreadLocal<>();
+
+    private RepositoryCallContext() {
+    }
+
+    /**
+     * @return "Repositorio.metodo" em execução, ou null fora de repositórios
+     */
+    public static String metodoAtual() {
+        return METODO_ATUAL.get();
+    }
+
+    static boolean definir(String metodo) {
+        if (METODO_ATUAL.get() != null) {
+            return false;
+        }
+        METODO_ATUAL.set(metodo);
+        return true;
+    }
+
+    static void limpar() {
+        METODO_ATUAL.remove();
+    }
+}
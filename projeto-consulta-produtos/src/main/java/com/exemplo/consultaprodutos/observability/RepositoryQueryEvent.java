@@ -0,0 +1,38 @@
+package com.exemplo.consultaprodutos.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma chamada a um método de repositório.
+ */
+@Name("consultaprodutos.RepositoryQuery")
+@Label("Consulta de Repositório")
+@Description("Execução de um método de repositório Spring Data")
+@Category({"Consulta Produtos", "Repositório"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Repositório")
+    String repositorio;
+
+    @Label("Método")
+    String metodo;
+
+    @Label("ID do Operador")
+    long operadorId = -1;
+
+    @Label("ID do Produto")
+    long produtoId = -1;
+
+    @Label("Linhas")
+    @Description("Itens retornados; -1 quando o retorno não é uma coleção ou entidade")
+    long linhas = -1;
+
+    @Label("Sucesso")
+    boolean sucesso;
+}
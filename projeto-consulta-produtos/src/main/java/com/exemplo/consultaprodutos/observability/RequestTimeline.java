@@ -0,0 +1,102 @@
+package com.exemplo.consultaprodutos.observability;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Linha do tempo de uma requisição amostrada: segmentos por camada
+ * (controller, transação, repositório, mapper, serialização).
+ *
+ * Fica associada à thread da requisição apenas quando ela foi sorteada pela
+ * amostragem; nas demais, {@link #atual()} retorna null e a instrumentação
+ * não faz nada além dessa verificação.
+ */
+public final class RequestTimeline {
+
+    private static final ThreadLocal<RequestTimeline> ATUAL = new ThreadLocal<>();
+
+    private final long inicioNanos;
+    private final int maxSegmentos;
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private final EnumSet<Camada> camadasAbertas = EnumSet.noneOf(Camada.class);
+    private int segmentosDescartados;
+
+    RequestTimeline(long inicioNanos, int maxSegmentos) {
+        this.inicioNanos = inicioNanos;
+        this.maxSegmentos = maxSegmentos;
+    }
+
+    /**
+     * @return a linha do tempo da requisição atual, ou null se ela não foi amostrada
+     */
+    public static RequestTimeline atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Registra um segmento encerrado agora, se a requisição atual é amostrada.
+     */
+    public static void registrar(Camada camada, String nome, long inicioNanos) {
+        RequestTimeline timeline = ATUAL.get();
+        if (timeline != null) {
+            timeline.adicionar(camada, nome, inicioNanos, System.nanoTime());
+        }
+    }
+
+    static void definir(RequestTimeline timeline) {
+        ATUAL.set(timeline);
+    }
+
+    static void limpar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Marca a entrada em uma camada; retorna false se ela já está aberta
+     * (chamada aninhada, ex.: toResponseDTO dentro de toResponseDTOList),
+     * caso em que só a chamada mais externa é registrada.
+     */
+    public boolean entrar(Camada camada) {
+        return camadasAbertas.add(camada);
+    }
+
+    public void sair(Camada camada, String nome, long inicioNanos) {
+        camadasAbertas.remove(camada);
+        adicionar(camada, nome, inicioNanos, System.nanoTime());
+    }
+
+    void adicionar(Camada camada, String nome, long inicio, long fim) {
+        if (segmentos.size() >= maxSegmentos) {
+            segmentosDescartados++;
+            return;
+        }
+        segmentos.add(new Segmento(camada, nome, inicio - inicioNanos, fim - inicio));
+    }
+
+    long getInicioNanos() {
+        return inicioNanos;
+    }
+
+    List<Segmento> getSegmentos() {
+        return segmentos;
+    }
+
+    int getSegmentosDescartados() {
+        return segmentosDescartados;
+    }
+
+    public enum Camada {
+        CONTROLLER,
+        TRANSACAO,
+        REPOSITORIO,
+        MAPPER,
+        SERIALIZACAO
+    }
+
+    /**
+     * Trecho da requisição, com início relativo ao início da requisição.
+     */
+    record Segmento(Camada camada, String nome, long inicioRelativoNanos, long duracaoNanos) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra na linha do tempo da requisição amostrada as chamadas aos
+ * controllers e aos mappers.
+ */
+@Aspect
+@Component
+public class RequestTimelineAspect {
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object registrarController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return registrar(joinPoint, RequestTimeline.Camada.CONTROLLER);
+    }
+
+    @Around("execution(public * com.exemplo.consultaprodutos.mapper..*.*(..))")
+    public Object registrarMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return registrar(joinPoint, RequestTimeline.Camada.MAPPER);
+    }
+
+    private Object registrar(ProceedingJoinPoint joinPoint, RequestTimeline.Camada camada) throws Throwable {
+        RequestTimeline timeline = RequestTimeline.atual();
+        if (timeline == null || !timeline.entrar(camada)) {
+            return joinPoint.proceed();
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timeline.sair(camada, joinPoint.getSignature().getDeclaringType().getSimpleName()
+                    + "." + joinPoint.getSignature().getName(), inicio);
+        }
+    }
+}
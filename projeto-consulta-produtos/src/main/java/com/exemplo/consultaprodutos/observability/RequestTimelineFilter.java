@@ -0,0 +1,113 @@
+package com.exemplo.consultaprodutos.observability;
+
+import com.exemplo.consultaprodutos.resilience.EndpointClassifier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorteia as requisições da API que terão linha do tempo e guarda no
+ * {@link SlowRequestBuffer} as que passarem do limite de lentidão.
+ *
+ * Executa antes dos filtros de resiliência, de modo que a duração total
+ * inclui esperas na admissão e nos bulkheads (tempo fora dos segmentos).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestTimelineFilter extends OncePerRequestFilter {
+
+    private final EndpointClassifier endpointClassifier;
+    private final SlowRequestBuffer buffer;
+    private final double taxaAmostragem;
+    private final long limiteNanos;
+    private final int maxSegmentos;
+
+    @Autowired
+    public RequestTimelineFilter(EndpointClassifier endpointClassifier,
+                                 SlowRequestBuffer buffer,
+                                 @Value("${consultaprodutos.timeline.taxa-amostragem:0.05}") double taxaAmostragem,
+                                 @Value("${consultaprodutos.timeline.limite-ms:500}") long limiteMs,
+                                 @Value("${consultaprodutos.timeline.max-segmentos:200}") int maxSegmentos) {
+        this.endpointClassifier = endpointClassifier;
+        this.buffer = buffer;
+        this.taxaAmostragem = taxaAmostragem;
+        this.limiteNanos = TimeUnit.MILLISECONDS.toNanos(limiteMs);
+        this.maxSegmentos = maxSegmentos;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return taxaAmostragem <= 0 || !endpointClassifier.isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= taxaAmostragem) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestTimeline timeline = new RequestTimeline(System.nanoTime(), maxSegmentos);
+        RequestTimeline.definir(timeline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimeline.limpar();
+            long fim = System.nanoTime();
+
+            Object inicioRenderizacao = request.getAttribute(ConnectionAttributionMonitor.ATRIBUTO_INICIO_RENDERIZACAO);
+            if (inicioRenderizacao instanceof Long inicio) {
+                timeline.adicionar(RequestTimeline.Camada.SERIALIZACAO, "corpo da resposta", inicio, fim);
+            }
+
+            if (fim - timeline.getInicioNanos() >= limiteNanos) {
+                buffer.adicionar(descrever(timeline, request, response, fim));
+            }
+        }
+    }
+
+    private SlowRequestBuffer.RequisicaoLenta descrever(RequestTimeline timeline, HttpServletRequest request,
+                                                        HttpServletResponse response, long fim) {
+        Map<RequestTimeline.Camada, Double> totalPorCamada = new EnumMap<>(RequestTimeline.Camada.class);
+        List<SlowRequestBuffer.SegmentoRequisicao> segmentos = timeline.getSegmentos().stream()
+                .map(segmento -> {
+                    totalPorCamada.merge(segmento.camada(), emMs(segmento.duracaoNanos()), Double::sum);
+                    return new SlowRequestBuffer.SegmentoRequisicao(segmento.camada(), segmento.nome(),
+                            emMs(segmento.inicioRelativoNanos()), emMs(segmento.duracaoNanos()));
+                })
+                .toList();
+
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return new SlowRequestBuffer.RequisicaoLenta(
+                Instant.now(),
+                request.getMethod(),
+                request.getRequestURI(),
+                padrao != null ? padrao.toString() : null,
+                response.getStatus(),
+                emMs(fim - timeline.getInicioNanos()),
+                totalPorCamada,
+                segmentos,
+                timeline.getSegmentosDescartados());
+    }
+
+    private static double emMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
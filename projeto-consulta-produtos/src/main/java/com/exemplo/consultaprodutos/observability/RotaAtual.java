@@ -0,0 +1,29 @@
+package com.exemplo.consultaprodutos.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Rota HTTP da requisição atendida pela thread atual.
+ */
+public final class RotaAtual {
+
+    private RotaAtual() {
+    }
+
+    /**
+     * @return método e padrão da rota (ex.: "GET /api/produtos/{id}"), a URI
+     *         quando o handler ainda não foi resolvido, ou null fora de requisições
+     */
+    public static String descrever() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            return null;
+        }
+
+        HttpServletRequest request = atributos.getRequest();
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (padrao != null ? padrao : request.getRequestURI());
+    }
+}
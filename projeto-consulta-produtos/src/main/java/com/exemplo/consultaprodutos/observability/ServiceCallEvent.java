@@ -0,0 +1,40 @@
+package com.exemplo.consultaprodutos.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma chamada a OperadorService, ProdutoService ou AssociacaoService.
+ */
+@Name("consultaprodutos.ServiceCall")
+@Label("Chamada de Serviço")
+@Description("Execução de um método de serviço da aplicação")
+@Category({"Consulta Produtos", "Serviço"})
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+
+    @Label("Serviço")
+    String servico;
+
+    @Label("Método")
+    String metodo;
+
+    @Label("ID do Operador")
+    @Description("-1 quando a chamada não envolve um operador específico")
+    long operadorId = -1;
+
+    @Label("ID do Produto")
+    @Description("-1 quando a chamada não envolve um produto específico")
+    long produtoId = -1;
+
+    @Label("Linhas")
+    @Description("Itens retornados; -1 quando o retorno não é uma coleção ou entidade")
+    long linhas = -1;
+
+    @Label("Sucesso")
+    boolean sucesso;
+}
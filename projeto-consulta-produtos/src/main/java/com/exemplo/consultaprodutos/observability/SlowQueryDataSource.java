@@ -0,0 +1,267 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DataSource que mede cada comando SQL executado e repassa o resultado ao
+ * {@link SlowQueryMonitor}.
+ *
+ * Conexões, statements e result sets são envolvidos por proxies dinâmicos:
+ * os parâmetros vinculados são guardados até a execução, e consultas só são
+ * encerradas quando o result set é esgotado ou fechado, para que o tempo
+ * inclua a leitura das linhas e a contagem de linhas seja conhecida.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryMonitor monitor;
+
+    public SlowQueryDataSource(DataSource alvo, SlowQueryMonitor monitor) {
+        super(alvo);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolverConexao(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolverConexao(super.getConnection(username, password));
+    }
+
+    private Connection envolverConexao(Connection conexao) {
+        if (!monitor.isHabilitado()) {
+            return conexao;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object resultado = invocar(conexao, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> envolverStatement(Statement.class, (Statement) resultado, null);
+                case "prepareStatement" -> envolverStatement(PreparedStatement.class, (Statement) resultado, (String) args[0]);
+                case "prepareCall" -> envolverStatement(CallableStatement.class, (Statement) resultado, (String) args[0]);
+                default -> resultado;
+            };
+        });
+    }
+
+    private <S extends Statement> S envolverStatement(Class<S> tipo, Statement statement, String sqlPreparado) {
+        return proxy(tipo, new StatementHandler(statement, sqlPreparado));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+        // equals/hashCode por identidade do proxy: Hibernate e Spring guardam
+        // conexões e statements em mapas
+        InvocationHandler comIdentidade = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                    }
+                }
+            }
+            return handler.invoke(proxy, method, args);
+        };
+        return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{tipo}, comIdentidade);
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Intercepta execuções de um statement e a vinculação de parâmetros.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String sqlPreparado;
+        private final ArrayList<Object> parametros = new ArrayList<>();
+        private int comandosEmLote;
+        private Execucao execucaoAberta;
+
+        StatementHandler(Statement statement, String sqlPreparado) {
+            this.statement = statement;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                vincular(indice, nome.equals("setNull") ? null : args[1]);
+                return invocar(statement, method, args);
+            }
+
+            switch (nome) {
+                case "clearParameters" -> parametros.clear();
+                case "addBatch" -> comandosEmLote++;
+                case "clearBatch" -> comandosEmLote = 0;
+                case "close" -> encerrarExecucaoAberta();
+                case "executeQuery" -> {
+                    return executarConsulta(method, args);
+                }
+                case "execute", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch" -> {
+                    return executarComando(method, args);
+                }
+                default -> {
+                }
+            }
+            return invocar(statement, method, args);
+        }
+
+        private void vincular(int indice, Object valor) {
+            while (parametros.size() < indice) {
+                parametros.add(null);
+            }
+            parametros.set(indice - 1, valor);
+        }
+
+        private Object executarConsulta(Method method, Object[] args) throws Throwable {
+            encerrarExecucaoAberta();
+            Execucao execucao = new Execucao(sql(args), new ArrayList<>(parametros), System.nanoTime());
+            ResultSet resultSet;
+            try {
+                resultSet = (ResultSet) invocar(statement, method, args);
+            } catch (Throwable t) {
+                execucao.encerrar(0);
+                throw t;
+            }
+            execucaoAberta = execucao;
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet, execucao));
+        }
+
+        private Object executarComando(Method method, Object[] args) throws Throwable {
+            encerrarExecucaoAberta();
+            boolean lote = method.getName().contains("Batch");
+            List<Object> parametrosExecucao = lote
+                    ? List.of("<lote com " + comandosEmLote + " comandos>")
+                    : new ArrayList<>(parametros);
+            Execucao execucao = new Execucao(sql(args), parametrosExecucao, System.nanoTime());
+
+            Object resultado = null;
+            try {
+                resultado = invocar(statement, method, args);
+                return resultado;
+            } finally {
+                if (lote) {
+                    comandosEmLote = 0;
+                }
+                execucao.encerrar(linhasAfetadas(resultado));
+            }
+        }
+
+        private String sql(Object[] args) {
+            return sqlPreparado != null || args == null || args.length == 0
+                    ? sqlPreparado
+                    : (String) args[0];
+        }
+
+        private long linhasAfetadas(Object resultado) {
+            if (resultado instanceof Integer linhas) {
+                return linhas;
+            }
+            if (resultado instanceof Long linhas) {
+                return linhas;
+            }
+            if (resultado instanceof int[] lote) {
+                return Arrays.stream(lote).filter(linhas -> linhas > 0).sum();
+            }
+            if (resultado instanceof long[] lote) {
+                return Arrays.stream(lote).filter(linhas -> linhas > 0).sum();
+            }
+            return 0;
+        }
+
+        private void encerrarExecucaoAberta() {
+            if (execucaoAberta != null) {
+                execucaoAberta.encerrar(execucaoAberta.linhas);
+                execucaoAberta = null;
+            }
+        }
+    }
+
+    /**
+     * Conta as linhas lidas e encerra a execução ao fim da leitura.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet resultSet;
+        private final Execucao execucao;
+
+        ResultSetHandler(ResultSet resultSet, Execucao execucao) {
+            this.resultSet = resultSet;
+            this.execucao = execucao;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object resultado = invocar(resultSet, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(resultado)) {
+                        execucao.linhas++;
+                    } else {
+                        execucao.encerrar(execucao.linhas);
+                    }
+                }
+                case "close" -> execucao.encerrar(execucao.linhas);
+                default -> {
+                }
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Uma execução em andamento; encerrada uma única vez.
+     */
+    private final class Execucao {
+
+        private final String sql;
+        private final List<Object> parametros;
+        private final long inicioNanos;
+        private long linhas;
+        private boolean encerrada;
+
+        Execucao(String sql, List<Object> parametros, long inicioNanos) {
+            this.sql = sql;
+            this.parametros = parametros;
+            this.inicioNanos = inicioNanos;
+        }
+
+        void encerrar(long linhasLidas) {
+            if (encerrada || sql == null) {
+                return;
+            }
+            encerrada = true;
+            monitor.registrar(sql, parametros, System.nanoTime() - inicioNanos, linhasLidas);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource principal da aplicação em um {@link SlowQueryDataSource}.
+ *
+ * Apenas o bean "dataSource" é envolvido: com o sub-pool de listagens
+ * habilitado ele é o DataSource de roteamento, e envolver também os pools
+ * mediria cada comando duas vezes.
+ */
+@Component
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String NOME_DATA_SOURCE = "dataSource";
+
+    private final ObjectProvider<SlowQueryMonitor> monitor;
+
+    @Autowired
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryMonitor> monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+                && NOME_DATA_SOURCE.equals(beanName)
+                && !(bean instanceof SlowQueryDataSource)) {
+            return new SlowQueryDataSource(dataSource, monitor.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,50 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint do Actuator (/actuator/slowqueries) com as estatísticas por
+ * comando SQL e as consultas lentas mais recentes.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryMonitor monitor;
+
+    @Autowired
+    public SlowQueryEndpoint(SlowQueryMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @ReadOperation
+    public RelatorioConsultas relatorio() {
+        return new RelatorioConsultas(
+                monitor.getLimiteMs(),
+                monitor.getConsultasNaoAgregadas(),
+                monitor.estatisticas(),
+                monitor.consultasLentas());
+    }
+
+    /**
+     * Zera as estatísticas e descarta os registros de consultas lentas.
+     */
+    @DeleteOperation
+    public void limpar() {
+        monitor.limpar();
+    }
+
+    public record RelatorioConsultas(
+            long limiteMs,
+            long consultasNaoAgregadas,
+            List<SlowQueryMonitor.EstatisticaConsulta> consultas,
+            List<SlowQueryMonitor.ConsultaLenta> lentas
+    ) {
+    }
+}
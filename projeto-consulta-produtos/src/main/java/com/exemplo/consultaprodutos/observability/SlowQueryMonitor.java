@@ -0,0 +1,252 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrega o tempo de execução de cada comando SQL e registra os lentos.
+ *
+ * Todas as execuções alimentam estatísticas por comando (contagem, p50/p99
+ * das últimas amostras e linhas); apenas as que passam do limite configurado
+ * são registradas com parâmetros, método de repositório e rota HTTP.
+ */
+@Component
+public class SlowQueryMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryMonitor.class);
+
+    private static final int MAX_TAMANHO_PARAMETRO = 200;
+
+    private final ConcurrentHashMap<String, Agregado> agregados = new ConcurrentHashMap<>();
+    private final ArrayDeque<ConsultaLenta> lentas = new ArrayDeque<>();
+    private final LongAdder consultasNaoAgregadas = new LongAdder();
+    private final boolean habilitado;
+    private final long limiteNanos;
+    private final int maxConsultas;
+    private final int amostrasPorConsulta;
+    private final int maxRegistrosLentos;
+
+    @Autowired
+    public SlowQueryMonitor(@Value("${consultaprodutos.slow-query.habilitado:true}") boolean habilitado,
+                            @Value("${consultaprodutos.slow-query.limite-ms:200}") long limiteMs,
+                            @Value("${consultaprodutos.slow-query.max-consultas:500}") int maxConsultas,
+                            @Value("${consultaprodutos.slow-query.amostras-por-consulta:1024}") int amostrasPorConsulta,
+                            @Value("${consultaprodutos.slow-query.max-registros:100}") int maxRegistrosLentos) {
+        this.habilitado = habilitado;
+        this.limiteNanos = TimeUnit.MILLISECONDS.toNanos(limiteMs);
+        this.maxConsultas = maxConsultas;
+        this.amostrasPorConsulta = amostrasPorConsulta;
+        this.maxRegistrosLentos = maxRegistrosLentos;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Registra uma execução concluída.
+     *
+     * @param parametros parâmetros vinculados, por posição (pode ser null)
+     */
+    public void registrar(String sql, List<Object> parametros, long duracaoNanos, long linhas) {
+        Agregado agregado = agregados.get(sql);
+        if (agregado == null) {
+            if (agregados.size() >= maxConsultas) {
+                consultasNaoAgregadas.increment();
+            } else {
+                agregado = agregados.computeIfAbsent(sql, chave -> new Agregado(chave, amostrasPorConsulta));
+            }
+        }
+        if (agregado != null) {
+            agregado.registrar(duracaoNanos, linhas);
+        }
+
+        if (duracaoNanos >= limiteNanos) {
+            registrarLenta(sql, parametros, duracaoNanos, linhas);
+        }
+    }
+
+    private void registrarLenta(String sql, List<Object> parametros, long duracaoNanos, long linhas) {
+        ConsultaLenta lenta = new ConsultaLenta(
+                Instant.now(),
+                sql,
+                descreverParametros(parametros),
+                TimeUnit.NANOSECONDS.toMillis(duracaoNanos),
+                linhas,
+                RepositoryCallContext.metodoAtual(),
+                RotaAtual.descrever());
+
+        log.warn("Consulta lenta ({} ms, {} linhas) em {} [{}]: {} | parâmetros: {}",
+                lenta.duracaoMs(), lenta.linhas(), lenta.repositorio(), lenta.rota(), lenta.sql(), lenta.parametros());
+
+        synchronized (lentas) {
+            if (lentas.size() >= maxRegistrosLentos) {
+                lentas.removeFirst();
+            }
+            lentas.addLast(lenta);
+        }
+    }
+
+    /**
+     * Estatísticas por comando, ordenadas pelo tempo total consumido.
+     */
+    public List<EstatisticaConsulta> estatisticas() {
+        return agregados.values().stream()
+                .map(Agregado::snapshot)
+                .sorted(Comparator.comparingDouble(EstatisticaConsulta::tempoTotalMs).reversed())
+                .toList();
+    }
+
+    /**
+     * Consultas lentas mais recentes, da mais nova para a mais antiga.
+     */
+    public List<ConsultaLenta> consultasLentas() {
+        synchronized (lentas) {
+            return lentas.reversed().stream().toList();
+        }
+    }
+
+    public long getLimiteMs() {
+        return TimeUnit.NANOSECONDS.toMillis(limiteNanos);
+    }
+
+    public long getConsultasNaoAgregadas() {
+        return consultasNaoAgregadas.sum();
+    }
+
+    public void limpar() {
+        agregados.clear();
+        consultasNaoAgregadas.reset();
+        synchronized (lentas) {
+            lentas.clear();
+        }
+    }
+
+    private static List<String> descreverParametros(List<Object> parametros) {
+        if (parametros == null) {
+            return List.of();
+        }
+        return parametros.stream()
+                .map(SlowQueryMonitor::descreverParametro)
+                .toList();
+    }
+
+    private static String descreverParametro(Object valor) {
+        if (valor instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        String texto = String.valueOf(valor);
+        return texto.length() > MAX_TAMANHO_PARAMETRO
+                ? texto.substring(0, MAX_TAMANHO_PARAMETRO) + "..."
+                : texto;
+    }
+
+    /**
+     * Estatísticas acumuladas de um comando SQL; os percentis consideram as
+     * últimas amostras registradas.
+     */
+    public record EstatisticaConsulta(
+            String sql,
+            long execucoes,
+            double tempoTotalMs,
+            double mediaMs,
+            double p50Ms,
+            double p99Ms,
+            double maximoMs,
+            long linhas,
+            double mediaLinhas
+    ) {
+    }
+
+    /**
+     * Execução que ultrapassou o limite de lentidão.
+     */
+    public record ConsultaLenta(
+            Instant instante,
+            String sql,
+            List<String> parametros,
+            long duracaoMs,
+            long linhas,
+            String repositorio,
+            String rota
+    ) {
+    }
+
+    private static final class Agregado {
+
+        private final String sql;
+        private final long[] amostras;
+        private int proximaAmostra;
+        private int totalAmostras;
+        private long execucoes;
+        private long tempoTotalNanos;
+        private long maximoNanos;
+        private long linhas;
+
+        Agregado(String sql, int tamanhoAmostras) {
+            this.sql = sql;
+            this.amostras = new long[tamanhoAmostras];
+        }
+
+        synchronized void registrar(long duracaoNanos, long linhasLidas) {
+            amostras[proximaAmostra] = duracaoNanos;
+            proximaAmostra = (proximaAmostra + 1) % amostras.length;
+            totalAmostras = Math.min(totalAmostras + 1, amostras.length);
+            execucoes++;
+            tempoTotalNanos += duracaoNanos;
+            maximoNanos = Math.max(maximoNanos, duracaoNanos);
+            linhas += Math.max(linhasLidas, 0);
+        }
+
+        EstatisticaConsulta snapshot() {
+            long[] ordenadas;
+            long execucoesAtuais;
+            long tempoTotal;
+            long maximo;
+            long linhasAtuais;
+            synchronized (this) {
+                ordenadas = Arrays.copyOf(amostras, totalAmostras);
+                execucoesAtuais = execucoes;
+                tempoTotal = tempoTotalNanos;
+                maximo = maximoNanos;
+                linhasAtuais = linhas;
+            }
+            Arrays.sort(ordenadas);
+
+            return new EstatisticaConsulta(
+                    sql,
+                    execucoesAtuais,
+                    emMs(tempoTotal),
+                    execucoesAtuais == 0 ? 0.0 : emMs(tempoTotal) / execucoesAtuais,
+                    emMs(percentil(ordenadas, 0.50)),
+                    emMs(percentil(ordenadas, 0.99)),
+                    emMs(maximo),
+                    linhasAtuais,
+                    execucoesAtuais == 0 ? 0.0 : (double) linhasAtuais / execucoesAtuais);
+        }
+
+        private static long percentil(long[] ordenadas, double percentil) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+        }
+
+        private static double emMs(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
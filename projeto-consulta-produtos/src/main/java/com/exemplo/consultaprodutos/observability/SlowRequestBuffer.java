@@ -0,0 +1,85 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular, sem locks, das requisições amostradas mais recentes que
+ * passaram do limite de lentidão.
+ *
+ * Escritores concorrentes obtêm posições distintas por um contador atômico
+ * e sobrescrevem a mais antiga; leitores apenas copiam as posições ocupadas.
+ */
+@Component
+public class SlowRequestBuffer {
+
+    private final AtomicReferenceArray<RequisicaoLenta> posicoes;
+    private final AtomicLong proximaPosicao = new AtomicLong();
+
+    @Autowired
+    public SlowRequestBuffer(@Value("${consultaprodutos.timeline.max-requisicoes:50}") int capacidade) {
+        this.posicoes = new AtomicReferenceArray<>(capacidade);
+    }
+
+    public void adicionar(RequisicaoLenta requisicao) {
+        int posicao = (int) Math.floorMod(proximaPosicao.getAndIncrement(), (long) posicoes.length());
+        posicoes.set(posicao, requisicao);
+    }
+
+    /**
+     * Requisições registradas, da mais recente para a mais antiga.
+     */
+    public List<RequisicaoLenta> requisicoes() {
+        List<RequisicaoLenta> copia = new ArrayList<>(posicoes.length());
+        for (int i = 0; i < posicoes.length(); i++) {
+            RequisicaoLenta requisicao = posicoes.get(i);
+            if (requisicao != null) {
+                copia.add(requisicao);
+            }
+        }
+        copia.sort(Comparator.comparing(RequisicaoLenta::instante).reversed());
+        return copia;
+    }
+
+    public void limpar() {
+        for (int i = 0; i < posicoes.length(); i++) {
+            posicoes.set(i, null);
+        }
+    }
+
+    public int getCapacidade() {
+        return posicoes.length();
+    }
+
+    /**
+     * Requisição lenta com o detalhamento do tempo por camada.
+     *
+     * @param totalPorCamadaMs soma dos segmentos de cada camada; segmentos de
+     *                         camadas diferentes se sobrepõem (o controller
+     *                         contém repositórios e mappers)
+     */
+    public record RequisicaoLenta(
+            Instant instante,
+            String metodoHttp,
+            String uri,
+            String rota,
+            int status,
+            double duracaoMs,
+            Map<RequestTimeline.Camada, Double> totalPorCamadaMs,
+            List<SegmentoRequisicao> segmentos,
+            int segmentosDescartados
+    ) {
+    }
+
+    public record SegmentoRequisicao(RequestTimeline.Camada camada, String nome, double inicioMs, double duracaoMs) {
+    }
+}
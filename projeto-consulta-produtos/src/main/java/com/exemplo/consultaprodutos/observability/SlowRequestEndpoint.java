@@ -0,0 +1,50 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Endpoint do Actuator (/actuator/requisicoes) com as requisições lentas
+ * amostradas mais recentes e o tempo gasto em cada camada.
+ */
+@Component
+@Endpoint(id = "requisicoes")
+public class SlowRequestEndpoint {
+
+    private final SlowRequestBuffer buffer;
+    private final double taxaAmostragem;
+    private final long limiteMs;
+
+    @Autowired
+    public SlowRequestEndpoint(SlowRequestBuffer buffer,
+                               @Value("${consultaprodutos.timeline.taxa-amostragem:0.05}") double taxaAmostragem,
+                               @Value("${consultaprodutos.timeline.limite-ms:500}") long limiteMs) {
+        this.buffer = buffer;
+        this.taxaAmostragem = taxaAmostragem;
+        this.limiteMs = limiteMs;
+    }
+
+    @ReadOperation
+    public RelatorioRequisicoes relatorio() {
+        return new RelatorioRequisicoes(taxaAmostragem, limiteMs, buffer.getCapacidade(), buffer.requisicoes());
+    }
+
+    @DeleteOperation
+    public void limpar() {
+        buffer.limpar();
+    }
+
+    public record RelatorioRequisicoes(
+            double taxaAmostragem,
+            long limiteMs,
+            int capacidade,
+            List<SlowRequestBuffer.RequisicaoLenta> requisicoes
+    ) {
+    }
+}
@@ -1,10 +1,13 @@
 package com.exemplo.consultaprodutos.repository;
 
 import com.exemplo.consultaprodutos.entity.OperadorProduto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,9 @@ import java.util.Optional;
 
 /**
  * Repositório para operações de dados da entidade OperadorProduto.
+ *
+ * As consultas de leitura usam a hint read-only do Hibernate: as entidades
+ * retornadas não guardam snapshot para dirty checking nem entram no flush.
  */
 @Repository
 public interface OperadorProdutoRepository extends JpaRepository<OperadorProduto, Long> {
@@ -26,21 +32,25 @@ public interface OperadorProdutoRepository extends JpaRepository<OperadorProduto
     /**
      * Busca todas as associações ativas de um operador.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<OperadorProduto> findByOperadorIdAndAtivoTrueOrderByDataAssociacao(Long operadorId);
 
     /**
      * Busca todas as associações ativas de um produto.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<OperadorProduto> findByProdutoIdAndAtivoTrueOrderByDataAssociacao(Long produtoId);
 
     /**
      * Busca associações ativas com paginação por operador.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<OperadorProduto> findByOperadorIdAndAtivoTrueOrderByDataAssociacao(Long operadorId, Pageable pageable);
 
     /**
      * Busca associações ativas com paginação por produto.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<OperadorProduto> findByProdutoIdAndAtivoTrueOrderByDataAssociacao(Long produtoId, Pageable pageable);
 
     /**
@@ -61,6 +71,7 @@ public interface OperadorProdutoRepository extends JpaRepository<OperadorProduto
     /**
      * Busca associações por período de criação.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT op FROM OperadorProduto op " +
            "WHERE op.ativo = true AND op.dataAssociacao BETWEEN :dataInicio AND :dataFim " +
            "ORDER BY op.dataAssociacao DESC")
@@ -71,6 +82,7 @@ public interface OperadorProdutoRepository extends JpaRepository<OperadorProduto
     /**
      * Busca associações mais recentes.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT op FROM OperadorProduto op " +
            "WHERE op.ativo = true " +
            "ORDER BY op.dataAssociacao DESC")
@@ -1,10 +1,13 @@
 package com.exemplo.consultaprodutos.repository;
 
 import com.exemplo.consultaprodutos.entity.Operador;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +16,9 @@ import java.util.Optional;
 
 /**
  * Repositório para operações de dados da entidade Operador.
+ *
+ * As consultas de leitura usam a hint read-only do Hibernate: as entidades
+ * retornadas não guardam snapshot para dirty checking nem entram no flush.
  */
 @Repository
 public interface OperadorRepository extends JpaRepository<Operador, Long> {
@@ -20,27 +26,32 @@ public interface OperadorRepository extends JpaRepository<Operador, Long> {
     /**
      * Busca operador por email (apenas ativos).
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Operador> findByEmailAndAtivoTrue(String email);
 
     /**
      * Busca todos os operadores ativos.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Operador> findByAtivoTrueOrderByNome();
 
     /**
      * Busca operadores ativos com paginação.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<Operador> findByAtivoTrueOrderByNome(Pageable pageable);
 
     /**
      * Busca operadores por nome (busca parcial, case-insensitive).
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT o FROM Operador o WHERE o.ativo = true AND LOWER(o.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY o.nome")
     List<Operador> findByNomeContainingIgnoreCaseAndAtivoTrue(@Param("nome") String nome);
 
     /**
      * Busca operadores por nome com paginação.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT o FROM Operador o WHERE o.ativo = true AND LOWER(o.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY o.nome")
     Page<Operador> findByNomeContainingIgnoreCaseAndAtivoTrue(@Param("nome") String nome, Pageable pageable);
 
@@ -58,6 +69,7 @@ public interface OperadorRepository extends JpaRepository<Operador, Long> {
     /**
      * Busca operadores que possuem produtos associados.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT DISTINCT o FROM Operador o " +
            "INNER JOIN o.operadorProdutos op " +
            "WHERE o.ativo = true AND op.ativo = true " +
@@ -67,6 +79,7 @@ public interface OperadorRepository extends JpaRepository<Operador, Long> {
     /**
      * Busca operadores que possuem produtos associados com paginação.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT DISTINCT o FROM Operador o " +
            "INNER JOIN o.operadorProdutos op " +
            "WHERE o.ativo = true AND op.ativo = true " +
@@ -1,10 +1,13 @@
 package com.exemplo.consultaprodutos.repository;
 
 import com.exemplo.consultaprodutos.entity.Produto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,9 @@ import java.util.Optional;
 
 /**
  * Repositório para operações de dados da entidade Produto.
+ *
+ * As consultas de leitura usam a hint read-only do Hibernate: as entidades
+ * retornadas não guardam snapshot para dirty checking nem entram no flush.
  */
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
@@ -21,32 +27,38 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     /**
      * Busca produto por código (apenas ativos).
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Produto> findByCodigoAndAtivoTrue(String codigo);
 
     /**
      * Busca todos os produtos ativos.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Produto> findByAtivoTrueOrderByNome();
 
     /**
      * Busca produtos ativos com paginação.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<Produto> findByAtivoTrueOrderByNome(Pageable pageable);
 
     /**
      * Busca produtos por nome (busca parcial, case-insensitive).
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Produto p WHERE p.ativo = true AND LOWER(p.nome) LIKE LOWER(CONCAT('%', :nome, '%')) ORDER BY p.nome")
     List<Produto> findByNomeContainingIgnoreCaseAndAtivoTrue(@Param("nome") String nome);
 
     /**
      * Busca produtos por categoria.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Produto> findByCategoriaAndAtivoTrueOrderByNome(String categoria);
 
     /**
      * Busca produtos por faixa de preço.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Produto p WHERE p.ativo = true AND p.preco BETWEEN :precoMin AND :precoMax ORDER BY p.preco")
     List<Produto> findByPrecoRange(@Param("precoMin") BigDecimal precoMin, @Param("precoMax") BigDecimal precoMax);
 
@@ -64,6 +76,7 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     /**
      * CONSULTA PRINCIPAL: Busca produtos associados a um operador específico.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Produto p " +
            "INNER JOIN p.operadorProdutos op " +
            "WHERE op.operador.id = :operadorId AND op.ativo = true AND p.ativo = true " +
@@ -73,6 +86,7 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     /**
      * CONSULTA PRINCIPAL: Busca produtos associados a um operador específico com paginação.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Produto p " +
            "INNER JOIN p.operadorProdutos op " +
            "WHERE op.operador.id = :operadorId AND op.ativo = true AND p.ativo = true " +
@@ -82,6 +96,7 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     /**
      * Busca produtos associados a um operador por categoria.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT p FROM Produto p " +
            "INNER JOIN p.operadorProdutos op " +
            "WHERE op.operador.id = :operadorId AND p.categoria = :categoria " +
@@ -92,6 +107,7 @@ public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     /**
      * Busca produtos que possuem operadores associados.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT DISTINCT p FROM Produto p " +
            "INNER JOIN p.operadorProdutos op " +
            "WHERE p.ativo = true AND op.ativo = true " +
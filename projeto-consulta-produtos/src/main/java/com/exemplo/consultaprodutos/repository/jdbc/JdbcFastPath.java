@@ -0,0 +1,40 @@
+package com.exemplo.consultaprodutos.repository.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Define quais consultas de leitura usam os repositórios JDBC (mapeamento
+ * direto do ResultSet para os DTOs de resposta) em vez do caminho JPA.
+ */
+@Component
+public class JdbcFastPath {
+
+    private final Set<Consulta> habilitadas;
+
+    @Autowired
+    public JdbcFastPath(@Value("${consultaprodutos.jdbc-fast-path.consultas:}") List<Consulta> consultas) {
+        this.habilitadas = consultas.isEmpty() ? EnumSet.noneOf(Consulta.class) : EnumSet.copyOf(consultas);
+    }
+
+    public boolean habilitada(Consulta consulta) {
+        return habilitadas.contains(consulta);
+    }
+
+    public Set<Consulta> getHabilitadas() {
+        return Set.copyOf(habilitadas);
+    }
+
+    public enum Consulta {
+        PRODUTO_POR_ID,
+        PRODUTO_POR_CODIGO,
+        PRODUTOS_POR_OPERADOR,
+        CATEGORIAS,
+        OPERADOR_POR_ID
+    }
+}
@@ -0,0 +1,60 @@
+package com.exemplo.consultaprodutos.repository.jdbc;
+
+import com.exemplo.consultaprodutos.dto.response.OperadorResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consultas de leitura de Operador em JDBC, mapeadas direto para
+ * {@link OperadorResponseDTO}, sem entidades nem contexto de persistência.
+ */
+@Repository
+public class OperadorJdbcRepository {
+
+    private static final String SQL_POR_ID =
+            "SELECT o.id, o.nome, o.email, o.telefone, " +
+            "(SELECT COUNT(*) FROM operador_produto op INNER JOIN produto p ON p.id = op.produto_id " +
+            "WHERE op.operador_id = o.id AND op.ativo = TRUE AND p.ativo = TRUE) AS total_produtos, " +
+            "o.data_criacao, o.data_atualizacao " +
+            "FROM operador o WHERE o.id = :id AND o.ativo = TRUE";
+
+    private static final String SQL_EXISTE_ATIVO =
+            "SELECT COUNT(*) FROM operador WHERE id = :id AND ativo = TRUE";
+
+    private static final RowMapper<OperadorResponseDTO> OPERADOR_COM_TOTAL = (rs, linha) -> new OperadorResponseDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getLong(5),
+            rs.getObject(6, LocalDateTime.class),
+            rs.getObject(7, LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OperadorJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Busca operador ativo por ID com o total de produtos.
+     */
+    public Optional<OperadorResponseDTO> findById(Long id) {
+        return jdbcTemplate.query(SQL_POR_ID, Map.of("id", id), OPERADOR_COM_TOTAL).stream().findFirst();
+    }
+
+    /**
+     * Verifica se existe operador ativo com o ID informado.
+     */
+    public boolean existsAtivoById(Long id) {
+        Long total = jdbcTemplate.queryForObject(SQL_EXISTE_ATIVO, Map.of("id", id), Long.class);
+        return total != null && total > 0;
+    }
+}
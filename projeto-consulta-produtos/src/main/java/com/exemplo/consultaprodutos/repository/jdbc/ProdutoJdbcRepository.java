@@ -0,0 +1,123 @@
+package com.exemplo.consultaprodutos.repository.jdbc;
+
+import com.exemplo.consultaprodutos.dto.response.ProdutoResponseDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consultas de leitura de Produto em JDBC, mapeadas direto para
+ * {@link ProdutoResponseDTO}, sem entidades nem contexto de persistência.
+ *
+ * Os filtros replicam os das consultas equivalentes de ProdutoRepository. Os
+ * comandos SQL são constantes, de modo que o cache de SQL do
+ * NamedParameterJdbcTemplate e o cache de prepared statements do driver os
+ * reaproveitam.
+ */
+@Repository
+public class ProdutoJdbcRepository {
+
+    private static final String COLUNAS =
+            "p.id, p.nome, p.descricao, p.codigo, p.preco, p.categoria, p.data_criacao, p.data_atualizacao";
+
+    private static final String SQL_POR_ID =
+            "SELECT " + COLUNAS + ", " +
+            "(SELECT COUNT(*) FROM operador_produto op INNER JOIN operador o ON o.id = op.operador_id " +
+            "WHERE op.produto_id = p.id AND op.ativo = TRUE AND o.ativo = TRUE) AS total_operadores " +
+            "FROM produto p WHERE p.id = :id";
+
+    private static final String SQL_POR_CODIGO =
+            "SELECT " + COLUNAS + " FROM produto p WHERE p.codigo = :codigo AND p.ativo = TRUE";
+
+    private static final String SQL_POR_OPERADOR =
+            "SELECT " + COLUNAS + " FROM produto p " +
+            "INNER JOIN operador_produto op ON op.produto_id = p.id " +
+            "WHERE op.operador_id = :operadorId AND op.ativo = TRUE AND p.ativo = TRUE " +
+            "ORDER BY p.nome";
+
+    private static final String SQL_RESUMO_POR_OPERADOR =
+            "SELECT p.id, p.nome, p.codigo, p.preco, p.categoria FROM produto p " +
+            "INNER JOIN operador_produto op ON op.produto_id = p.id " +
+            "WHERE op.operador_id = :operadorId AND op.ativo = TRUE AND p.ativo = TRUE " +
+            "ORDER BY p.nome";
+
+    private static final String SQL_CATEGORIAS =
+            "SELECT DISTINCT categoria FROM produto WHERE ativo = TRUE AND categoria IS NOT NULL ORDER BY categoria";
+
+    private static final RowMapper<ProdutoResponseDTO> PRODUTO = (rs, linha) -> new ProdutoResponseDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getBigDecimal(5),
+            rs.getString(6),
+            null,
+            rs.getObject(7, LocalDateTime.class),
+            rs.getObject(8, LocalDateTime.class));
+
+    private static final RowMapper<ProdutoResponseDTO> PRODUTO_COM_TOTAL = (rs, linha) -> new ProdutoResponseDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getBigDecimal(5),
+            rs.getString(6),
+            rs.getLong(9),
+            rs.getObject(7, LocalDateTime.class),
+            rs.getObject(8, LocalDateTime.class));
+
+    private static final RowMapper<ProdutoResponseDTO> PRODUTO_RESUMO = (rs, linha) -> new ProdutoResponseDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getBigDecimal(4),
+            rs.getString(5));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ProdutoJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Busca produto por ID (ativo ou não, como findById) com o total de operadores.
+     */
+    public Optional<ProdutoResponseDTO> findById(Long id) {
+        return jdbcTemplate.query(SQL_POR_ID, Map.of("id", id), PRODUTO_COM_TOTAL).stream().findFirst();
+    }
+
+    /**
+     * Busca produto ativo por código.
+     */
+    public Optional<ProdutoResponseDTO> findByCodigo(String codigo) {
+        return jdbcTemplate.query(SQL_POR_CODIGO, Map.of("codigo", codigo), PRODUTO).stream().findFirst();
+    }
+
+    /**
+     * CONSULTA PRINCIPAL: Busca produtos associados a um operador específico.
+     */
+    public List<ProdutoResponseDTO> findProdutosByOperadorId(Long operadorId) {
+        return jdbcTemplate.query(SQL_POR_OPERADOR, Map.of("operadorId", operadorId), PRODUTO);
+    }
+
+    /**
+     * Busca produtos associados a um operador, no formato resumido das listagens.
+     */
+    public List<ProdutoResponseDTO> findProdutosResumoByOperadorId(Long operadorId) {
+        return jdbcTemplate.query(SQL_RESUMO_POR_OPERADOR, Map.of("operadorId", operadorId), PRODUTO_RESUMO);
+    }
+
+    /**
+     * Busca todas as categorias distintas de produtos ativos.
+     */
+    public List<String> findDistinctCategorias() {
+        return jdbcTemplate.queryForList(SQL_CATEGORIAS, Map.of(), String.class);
+    }
+}
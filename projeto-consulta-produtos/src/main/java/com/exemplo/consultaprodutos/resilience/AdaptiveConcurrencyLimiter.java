@@ -0,0 +1,98 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limite de concorrência adaptativo no esquema AIMD (additive increase,
+ * multiplicative decrease).
+ *
+ * O limite cresce em uma unidade a cada "limite" requisições concluídas
+ * dentro da latência alvo e é reduzido multiplicativamente quando a latência
+ * excede o alvo ou o pool de conexões está saturado. Listagens só são
+ * admitidas até uma fração do limite, reservando o restante para consultas
+ * pontuais.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double FATOR_REDUCAO = 0.9;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final long latenciaAlvoNanos;
+    private final double fracaoListagens;
+    private final BooleanSupplier poolSaturado;
+
+    private volatile double limite;
+    private long ultimaReducaoNanos;
+
+    public AdaptiveConcurrencyLimiter(int limiteInicial, int limiteMinimo, int limiteMaximo,
+                                      long latenciaAlvoMs, double fracaoListagens,
+                                      BooleanSupplier poolSaturado) {
+        this.limite = limiteInicial;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.latenciaAlvoNanos = TimeUnit.MILLISECONDS.toNanos(latenciaAlvoMs);
+        this.fracaoListagens = fracaoListagens;
+        this.poolSaturado = poolSaturado;
+        this.ultimaReducaoNanos = System.nanoTime() - latenciaAlvoNanos;
+    }
+
+    /**
+     * Tenta admitir uma requisição da classe informada.
+     *
+     * @return true se a requisição foi admitida e deve chamar {@link #liberar(long)} ao final
+     */
+    public boolean tentarAdquirir(ClasseEndpoint classe) {
+        int capacidade = classe == ClasseEndpoint.LISTAGEM
+                ? Math.max(1, (int) (limite * fracaoListagens))
+                : (int) limite;
+
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= capacidade) {
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga de uma requisição admitida e ajusta o limite com base na
+     * latência observada.
+     */
+    public void liberar(long latenciaNanos) {
+        int concorrencia = emAndamento.getAndDecrement();
+        ajustar(latenciaNanos, concorrencia);
+    }
+
+    private synchronized void ajustar(long latenciaNanos, int concorrencia) {
+        long agora = System.nanoTime();
+
+        if (latenciaNanos > latenciaAlvoNanos || poolSaturado.getAsBoolean()) {
+            // Reduz no máximo uma vez por janela de latência alvo para não colapsar o limite
+            if (agora - ultimaReducaoNanos >= latenciaAlvoNanos) {
+                limite = Math.max(limiteMinimo, limite * FATOR_REDUCAO);
+                ultimaReducaoNanos = agora;
+            }
+            return;
+        }
+
+        // Só cresce quando o limite atual está sendo de fato utilizado
+        if (concorrencia >= limite / 2) {
+            limite = Math.min(limiteMaximo, limite + 1.0 / limite);
+        }
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+}
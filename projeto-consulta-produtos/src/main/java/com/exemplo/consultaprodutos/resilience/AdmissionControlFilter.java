@@ -0,0 +1,92 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Controle de admissão na frente dos controllers da API.
+ *
+ * Requisições acima do limite adaptativo de concorrência são rejeitadas
+ * imediatamente com 503 e Retry-After, antes de ocuparem conexão do pool.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final EndpointClassifier endpointClassifier;
+    private final RespostaSobrecarga respostaSobrecarga;
+    private final boolean habilitado;
+    private final Map<ClasseEndpoint, Counter> rejeicoes = new EnumMap<>(ClasseEndpoint.class);
+
+    @Autowired
+    public AdmissionControlFilter(EndpointClassifier endpointClassifier,
+                                  PoolSaturationProbe poolSaturationProbe,
+                                  RespostaSobrecarga respostaSobrecarga,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${consultaprodutos.admissao.habilitado:true}") boolean habilitado,
+                                  @Value("${consultaprodutos.admissao.limite-inicial:20}") int limiteInicial,
+                                  @Value("${consultaprodutos.admissao.limite-minimo:4}") int limiteMinimo,
+                                  @Value("${consultaprodutos.admissao.limite-maximo:200}") int limiteMaximo,
+                                  @Value("${consultaprodutos.admissao.latencia-alvo-ms:250}") long latenciaAlvoMs,
+                                  @Value("${consultaprodutos.admissao.fracao-listagens:0.5}") double fracaoListagens) {
+        this.endpointClassifier = endpointClassifier;
+        this.respostaSobrecarga = respostaSobrecarga;
+        this.habilitado = habilitado;
+        this.limiter = new AdaptiveConcurrencyLimiter(limiteInicial, limiteMinimo, limiteMaximo,
+                latenciaAlvoMs, fracaoListagens, poolSaturationProbe::isSaturado);
+
+        Gauge.builder("admissao.limite", limiter, AdaptiveConcurrencyLimiter::getLimite)
+                .description("Limite adaptativo de requisições simultâneas")
+                .register(meterRegistry);
+        Gauge.builder("admissao.em.andamento", limiter, AdaptiveConcurrencyLimiter::getEmAndamento)
+                .description("Requisições admitidas em andamento")
+                .register(meterRegistry);
+        for (ClasseEndpoint classe : ClasseEndpoint.values()) {
+            rejeicoes.put(classe, Counter.builder("admissao.rejeicoes")
+                    .description("Requisições rejeitadas pelo controle de admissão")
+                    .tag("classe", classe.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !endpointClassifier.isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ClasseEndpoint classe = endpointClassifier.classificar(request);
+
+        if (!limiter.tentarAdquirir(classe)) {
+            rejeicoes.get(classe).increment();
+            respostaSobrecarga.escrever(response,
+                    "O servidor está no limite de capacidade. Tente novamente em instantes.");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.liberar(System.nanoTime() - inicio);
+        }
+    }
+}
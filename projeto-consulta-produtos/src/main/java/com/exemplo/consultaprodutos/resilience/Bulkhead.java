@@ -0,0 +1,87 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compartimento de concorrência (bulkhead) baseado em semáforo.
+ *
+ * Limita quantas requisições de uma classe de endpoint executam ao mesmo
+ * tempo; quem não obtém vaga dentro da espera máxima é rejeitado.
+ */
+public class Bulkhead {
+
+    private final String nome;
+    private final int maxConcorrentes;
+    private final long maxEsperaMs;
+    private final Semaphore semaforo;
+    private final Counter rejeicoes;
+    private final Timer espera;
+
+    public Bulkhead(String nome, int maxConcorrentes, long maxEsperaMs, MeterRegistry meterRegistry) {
+        this.nome = nome;
+        this.maxConcorrentes = maxConcorrentes;
+        this.maxEsperaMs = maxEsperaMs;
+        this.semaforo = new Semaphore(maxConcorrentes, true);
+
+        Gauge.builder("bulkhead.em.uso", this, Bulkhead::getEmUso)
+                .description("Vagas ocupadas no bulkhead")
+                .tag("bulkhead", nome)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturacao", this, Bulkhead::getSaturacao)
+                .description("Fração das vagas do bulkhead ocupadas")
+                .tag("bulkhead", nome)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.fila", semaforo, Semaphore::getQueueLength)
+                .description("Requisições aguardando vaga no bulkhead")
+                .tag("bulkhead", nome)
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("bulkhead.rejeicoes")
+                .description("Requisições rejeitadas por falta de vaga no bulkhead")
+                .tag("bulkhead", nome)
+                .register(meterRegistry);
+        this.espera = Timer.builder("bulkhead.espera")
+                .description("Tempo aguardando vaga no bulkhead")
+                .tag("bulkhead", nome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tenta ocupar uma vaga, aguardando no máximo a espera configurada ou o
+     * prazo restante da requisição, o que for menor.
+     *
+     * @return true se a vaga foi obtida e deve ser devolvida com {@link #sair()}
+     */
+    public boolean tentarEntrar() throws InterruptedException {
+        long esperaMs = Math.max(0, Math.min(maxEsperaMs, RequestDeadline.restanteMs()));
+        long inicio = System.nanoTime();
+        boolean obteve = semaforo.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        if (!obteve) {
+            rejeicoes.increment();
+        }
+        return obteve;
+    }
+
+    public void sair() {
+        semaforo.release();
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getEmUso() {
+        return maxConcorrentes - semaforo.availablePermits();
+    }
+
+    public double getSaturacao() {
+        return getEmUso() / (double) maxConcorrentes;
+    }
+}
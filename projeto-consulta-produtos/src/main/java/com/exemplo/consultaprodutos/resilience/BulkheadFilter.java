@@ -0,0 +1,85 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Isola listagens pesadas das consultas pontuais em bulkheads separados,
+ * para que listagens completas não consumam as threads e conexões usadas
+ * pelas consultas por chave.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final EndpointClassifier endpointClassifier;
+    private final RespostaSobrecarga respostaSobrecarga;
+    private final boolean habilitado;
+    private final Map<ClasseEndpoint, Bulkhead> bulkheads = new EnumMap<>(ClasseEndpoint.class);
+
+    @Autowired
+    public BulkheadFilter(EndpointClassifier endpointClassifier,
+                          RespostaSobrecarga respostaSobrecarga,
+                          MeterRegistry meterRegistry,
+                          @Value("${consultaprodutos.bulkhead.habilitado:true}") boolean habilitado,
+                          @Value("${consultaprodutos.bulkhead.consulta-pontual.max-concorrentes:40}") int maxPontuais,
+                          @Value("${consultaprodutos.bulkhead.consulta-pontual.max-espera-ms:20}") long esperaPontuais,
+                          @Value("${consultaprodutos.bulkhead.listagem.max-concorrentes:4}") int maxListagens,
+                          @Value("${consultaprodutos.bulkhead.listagem.max-espera-ms:100}") long esperaListagens) {
+        this.endpointClassifier = endpointClassifier;
+        this.respostaSobrecarga = respostaSobrecarga;
+        this.habilitado = habilitado;
+
+        bulkheads.put(ClasseEndpoint.CONSULTA_PONTUAL,
+                new Bulkhead("consulta-pontual", maxPontuais, esperaPontuais, meterRegistry));
+        bulkheads.put(ClasseEndpoint.LISTAGEM,
+                new Bulkhead("listagem", maxListagens, esperaListagens, meterRegistry));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !endpointClassifier.isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ClasseEndpoint classe = endpointClassifier.classificar(request);
+        Bulkhead bulkhead = bulkheads.get(classe);
+
+        boolean obteveVaga;
+        try {
+            obteveVaga = bulkhead.tentarEntrar();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            obteveVaga = false;
+        }
+
+        if (!obteveVaga) {
+            respostaSobrecarga.escrever(response,
+                    "Capacidade para este tipo de consulta esgotada. Tente novamente em instantes.");
+            return;
+        }
+
+        ContextoBulkhead.definir(classe);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoBulkhead.limpar();
+            bulkhead.sair();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.exemplo.consultaprodutos.resilience;
+
+/**
+ * Classificação dos endpoints pelo custo esperado de atendimento.
+ */
+public enum ClasseEndpoint {
+
+    /**
+     * Consultas baratas por chave (ex.: GET /api/produtos/{id}).
+     */
+    CONSULTA_PONTUAL,
+
+    /**
+     * Listagens completas ou com JOIN sobre toda a base (ex.: GET /api/produtos).
+     */
+    LISTAGEM
+}
@@ -0,0 +1,20 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método de leitura cujas chamadas concorrentes com os mesmos
+ * argumentos devem compartilhar uma única execução em andamento.
+ *
+ * Deve ser usado apenas em métodos sem efeitos colaterais que retornam
+ * Records imutáveis, pois o mesmo resultado é entregue a todos os chamadores.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+}
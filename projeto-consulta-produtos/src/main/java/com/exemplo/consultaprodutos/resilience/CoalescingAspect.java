@@ -0,0 +1,37 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Aplica o {@link RequestCoalescer} aos métodos anotados com {@link Coalesced}.
+ *
+ * Executa antes do interceptor de transação, de modo que os chamadores que
+ * aguardam uma execução compartilhada não abrem transação nem ocupam conexão.
+ */
+@Aspect
+@Component
+@Order(0)
+public class CoalescingAspect {
+
+    private final RequestCoalescer requestCoalescer;
+
+    @Autowired
+    public CoalescingAspect(RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    @Around("@annotation(com.exemplo.consultaprodutos.resilience.Coalesced)")
+    public Object coalescer(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operacao = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+
+        return requestCoalescer.executar(operacao, Arrays.asList(joinPoint.getArgs()), joinPoint::proceed);
+    }
+}
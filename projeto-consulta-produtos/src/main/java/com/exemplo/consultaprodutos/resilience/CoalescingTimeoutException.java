@@ -0,0 +1,12 @@
+package com.exemplo.consultaprodutos.resilience;
+
+/**
+ * Lançada quando um chamador desiste de aguardar uma execução compartilhada
+ * que não terminou dentro do tempo limite configurado.
+ */
+public class CoalescingTimeoutException extends RuntimeException {
+
+    public CoalescingTimeoutException(String operacao, long timeoutMs) {
+        super("Tempo limite de " + timeoutMs + " ms excedido aguardando a operação: " + operacao);
+    }
+}
@@ -0,0 +1,25 @@
+package com.exemplo.consultaprodutos.resilience;
+
+/**
+ * Guarda a classe de endpoint da requisição em execução na thread atual,
+ * usada para rotear conexões ao sub-pool dedicado quando habilitado.
+ */
+public final class ContextoBulkhead {
+
+    private static final ThreadLocal<ClasseEndpoint> CLASSE_ATUAL = new ThreadLocal<>();
+
+    private ContextoBulkhead() {
+    }
+
+    public static ClasseEndpoint classeAtual() {
+        return CLASSE_ATUAL.get();
+    }
+
+    static void definir(ClasseEndpoint classe) {
+        CLASSE_ATUAL.set(classe);
+    }
+
+    static void limpar() {
+        CLASSE_ATUAL.remove();
+    }
+}
@@ -0,0 +1,23 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interrompe a requisição antes de cada chamada a repositório quando o prazo
+ * já se esgotou, evitando enviar ao banco consultas cujo resultado ninguém
+ * mais aguarda.
+ */
+@Aspect
+@Component
+public class DeadlineAspect {
+
+    @Before("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void verificarPrazo(JoinPoint joinPoint) {
+        if (RequestDeadline.isDefinido()) {
+            RequestDeadline.verificar(joinPoint.getSignature().getName());
+        }
+    }
+}
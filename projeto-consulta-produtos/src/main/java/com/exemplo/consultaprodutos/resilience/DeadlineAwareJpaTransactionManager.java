@@ -0,0 +1,56 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import com.exemplo.consultaprodutos.observability.RequestTimeline;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JpaTransactionManager que limita o timeout de cada transação ao tempo
+ * restante do prazo da requisição.
+ *
+ * O timeout é repassado ao Hibernate, que o aplica como query timeout de
+ * cada comando JDBC da transação, e ao EntityManagerHolder, de onde o Spring
+ * o aplica às consultas JPA. Sem prazo definido, o comportamento é o padrão.
+ *
+ * Com o prazo já esgotado, a transação não é aberta: a verificação fica em
+ * doBegin, antes do JpaTransactionManager, que embrulharia a exceção em
+ * CannotCreateTransactionException (tratada como erro genérico, não 504).
+ *
+ * A abertura da transação (que inclui a obtenção da conexão do pool) é
+ * registrada na linha do tempo da requisição, quando amostrada.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    public DeadlineAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline.verificar("abertura da transação");
+
+        long inicio = System.nanoTime();
+        try {
+            super.doBegin(transaction, definition);
+        } finally {
+            RequestTimeline.registrar(RequestTimeline.Camada.TRANSACAO, "abertura", inicio);
+        }
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeoutConfigurado = super.determineTimeout(definition);
+        if (!RequestDeadline.isDefinido()) {
+            return timeoutConfigurado;
+        }
+
+        // Timeouts JDBC/JPA têm granularidade de segundos: arredonda para cima,
+        // com no mínimo 1 s (o prazo pode ter vencido desde doBegin)
+        long restanteMs = Math.max(1, RequestDeadline.restanteMs());
+        int restanteSegundos = (int) Math.min(Integer.MAX_VALUE, (restanteMs + 999) / 1000);
+        return timeoutConfigurado == TransactionDefinition.TIMEOUT_DEFAULT
+                ? restanteSegundos
+                : Math.min(timeoutConfigurado, restanteSegundos);
+    }
+}
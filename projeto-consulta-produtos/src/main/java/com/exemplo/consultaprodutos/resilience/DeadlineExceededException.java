@@ -0,0 +1,12 @@
+package com.exemplo.consultaprodutos.resilience;
+
+/**
+ * Lançada quando o prazo da requisição se esgota antes de uma etapa ser
+ * iniciada (abertura de transação, consulta ao repositório, espera por vaga).
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String etapa) {
+        super("Prazo da requisição esgotado antes de: " + etapa);
+    }
+}
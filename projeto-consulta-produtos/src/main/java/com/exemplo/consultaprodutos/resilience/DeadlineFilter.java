@@ -0,0 +1,80 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Define o prazo de cada requisição da API.
+ *
+ * O prazo vem do cabeçalho X-Request-Timeout-Ms (limitado ao máximo
+ * configurado) ou, na ausência dele, do padrão da classe do endpoint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_TIMEOUT = "X-Request-Timeout-Ms";
+
+    private final EndpointClassifier endpointClassifier;
+    private final boolean habilitado;
+    private final long padraoConsultaPontualMs;
+    private final long padraoListagemMs;
+    private final long maximoMs;
+
+    @Autowired
+    public DeadlineFilter(EndpointClassifier endpointClassifier,
+                          @Value("${consultaprodutos.deadline.habilitado:true}") boolean habilitado,
+                          @Value("${consultaprodutos.deadline.consulta-pontual-ms:2000}") long padraoConsultaPontualMs,
+                          @Value("${consultaprodutos.deadline.listagem-ms:10000}") long padraoListagemMs,
+                          @Value("${consultaprodutos.deadline.maximo-ms:30000}") long maximoMs) {
+        this.endpointClassifier = endpointClassifier;
+        this.habilitado = habilitado;
+        this.padraoConsultaPontualMs = padraoConsultaPontualMs;
+        this.padraoListagemMs = padraoListagemMs;
+        this.maximoMs = maximoMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || !endpointClassifier.isApi(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestDeadline.definir(duracao(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.limpar();
+        }
+    }
+
+    private long duracao(HttpServletRequest request) {
+        String header = request.getHeader(HEADER_TIMEOUT);
+        if (header != null) {
+            try {
+                long solicitado = Long.parseLong(header.trim());
+                if (solicitado > 0) {
+                    return Math.min(solicitado, maximoMs);
+                }
+            } catch (NumberFormatException e) {
+                // Cabeçalho inválido: usa o padrão do endpoint
+            }
+        }
+
+        return endpointClassifier.classificar(request) == ClasseEndpoint.LISTAGEM
+                ? padraoListagemMs
+                : padraoConsultaPontualMs;
+    }
+}
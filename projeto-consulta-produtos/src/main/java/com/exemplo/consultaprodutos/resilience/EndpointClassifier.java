@@ -0,0 +1,54 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Classifica as requisições em {@link ClasseEndpoint} a partir dos padrões
+ * de caminho configurados para listagens pesadas.
+ */
+@Component
+public class EndpointClassifier {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> padroesListagem;
+
+    public EndpointClassifier(@Value("${consultaprodutos.endpoints.listagens:"
+            + "/api/produtos,/api/produtos/paginado,/api/produtos/com-operadores,"
+            + "/api/produtos/categoria/*,/api/produtos/preco,"
+            + "/api/operadores,/api/operadores/paginado,/api/operadores/com-produtos}") List<String> padroesListagem) {
+        this.padroesListagem = List.copyOf(padroesListagem);
+    }
+
+    /**
+     * Retorna a classe do endpoint atendido pela requisição.
+     */
+    public ClasseEndpoint classificar(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return ClasseEndpoint.CONSULTA_PONTUAL;
+        }
+
+        String caminho = caminho(request);
+        for (String padrao : padroesListagem) {
+            if (pathMatcher.match(padrao, caminho)) {
+                return ClasseEndpoint.LISTAGEM;
+            }
+        }
+        return ClasseEndpoint.CONSULTA_PONTUAL;
+    }
+
+    /**
+     * Indica se a requisição pertence à API de negócio (/api/**).
+     */
+    public boolean isApi(HttpServletRequest request) {
+        return caminho(request).startsWith("/api/");
+    }
+
+    private String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
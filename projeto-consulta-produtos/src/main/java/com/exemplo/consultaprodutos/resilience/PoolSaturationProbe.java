@@ -0,0 +1,80 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detecta saturação do pool de conexões JDBC a partir das métricas do HikariCP
+ * (threads aguardando conexão e tempo médio de aquisição).
+ *
+ * A leitura das métricas é feita no máximo uma vez por intervalo de amostragem,
+ * pois o sinal é consultado ao término de cada requisição.
+ */
+@Component
+public class PoolSaturationProbe {
+
+    private static final long INTERVALO_AMOSTRAGEM_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MeterRegistry meterRegistry;
+    private final double maxPendentes;
+    private final double maxEsperaMediaMs;
+
+    private long ultimaAmostraNanos;
+    private long ultimaContagemAquisicoes;
+    private double ultimoTempoTotalAquisicaoMs;
+    private volatile boolean saturado;
+
+    @Autowired
+    public PoolSaturationProbe(MeterRegistry meterRegistry,
+                               @Value("${consultaprodutos.admissao.pool.max-pendentes:0}") double maxPendentes,
+                               @Value("${consultaprodutos.admissao.pool.max-espera-media-ms:50}") double maxEsperaMediaMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxPendentes = maxPendentes;
+        this.maxEsperaMediaMs = maxEsperaMediaMs;
+        this.ultimaAmostraNanos = System.nanoTime();
+    }
+
+    /**
+     * Indica se o pool estava saturado na última amostra.
+     */
+    public boolean isSaturado() {
+        long agora = System.nanoTime();
+        if (agora - ultimaAmostraNanos >= INTERVALO_AMOSTRAGEM_NANOS) {
+            amostrar(agora);
+        }
+        return saturado;
+    }
+
+    private synchronized void amostrar(long agora) {
+        if (agora - ultimaAmostraNanos < INTERVALO_AMOSTRAGEM_NANOS) {
+            return;
+        }
+        ultimaAmostraNanos = agora;
+
+        double pendentes = meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+
+        long contagemAquisicoes = 0;
+        double tempoTotalAquisicaoMs = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            contagemAquisicoes += timer.count();
+            tempoTotalAquisicaoMs += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+
+        long novasAquisicoes = contagemAquisicoes - ultimaContagemAquisicoes;
+        double esperaMediaMs = novasAquisicoes > 0
+                ? (tempoTotalAquisicaoMs - ultimoTempoTotalAquisicaoMs) / novasAquisicoes
+                : 0;
+        ultimaContagemAquisicoes = contagemAquisicoes;
+        ultimoTempoTotalAquisicaoMs = tempoTotalAquisicaoMs;
+
+        saturado = pendentes > maxPendentes || esperaMediaMs > maxEsperaMediaMs;
+    }
+}
@@ -0,0 +1,166 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Agrupa chamadas concorrentes idênticas em uma única execução (single-flight).
+ *
+ * O primeiro chamador de uma chave executa a operação; os demais que chegam
+ * enquanto ela está em andamento aguardam o mesmo resultado, limitado pelo
+ * tempo de espera configurado. Exceções da execução são propagadas a todos,
+ * exceto as de prazo (deadline, timeout de transação ou de consulta): elas
+ * refletem o prazo do líder, que o cliente pode ter definido bem curto, e os
+ * seguidores repetem a chamada, um deles como novo líder.
+ */
+@Component
+public class RequestCoalescer {
+
+    // Resultado de aguardar() quando o seguidor deve repetir a chamada
+    private static final Object REPETIR = new Object();
+
+    private final ConcurrentHashMap<ChaveChamada, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Contadores> contadoresPorOperacao = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final long timeoutMs;
+
+    @Autowired
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${consultaprodutos.coalescing.habilitado:true}") boolean habilitado,
+                            @Value("${consultaprodutos.coalescing.timeout-ms:2000}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.timeoutMs = timeoutMs;
+
+        Gauge.builder("coalescing.em.andamento", emAndamento, ConcurrentHashMap::size)
+                .description("Execuções compartilhadas em andamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa a operação ou aguarda a execução idêntica já em andamento.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String operacao, List<Object> argumentos, Chamada<T> chamada) throws Throwable {
+        if (!habilitado) {
+            return chamada.executar();
+        }
+
+        Contadores contadores = contadoresPorOperacao.computeIfAbsent(operacao, this::registrarContadores);
+        ChaveChamada chave = new ChaveChamada(operacao, argumentos);
+        while (true) {
+            CompletableFuture<Object> novaExecucao = new CompletableFuture<>();
+            CompletableFuture<Object> execucaoExistente = emAndamento.putIfAbsent(chave, novaExecucao);
+
+            if (execucaoExistente != null) {
+                contadores.seguidores.increment();
+                Object resultado = aguardar(operacao, execucaoExistente);
+                if (resultado == REPETIR) {
+                    emAndamento.remove(chave, execucaoExistente);
+                    continue;
+                }
+                return (T) resultado;
+            }
+
+            contadores.lideres.increment();
+            try {
+                T resultado = chamada.executar();
+                emAndamento.remove(chave, novaExecucao);
+                novaExecucao.complete(resultado);
+                return resultado;
+            } catch (Throwable t) {
+                emAndamento.remove(chave, novaExecucao);
+                novaExecucao.completeExceptionally(t);
+                throw t;
+            }
+        }
+    }
+
+    /**
+     * Falhas ligadas ao prazo de quem executou, que não valem para os demais.
+     */
+    private static boolean isFalhaDePrazo(Throwable t) {
+        return t instanceof DeadlineExceededException
+                || t instanceof TransactionTimedOutException
+                || t instanceof QueryTimeoutException;
+    }
+
+    private Object aguardar(String operacao, CompletableFuture<Object> execucao) throws Throwable {
+        // A espera também respeita o prazo da requisição, se houver
+        long esperaMs = Math.min(timeoutMs, RequestDeadline.restanteMs());
+        if (esperaMs <= 0) {
+            throw new DeadlineExceededException(operacao);
+        }
+
+        try {
+            return execucao.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (isFalhaDePrazo(e.getCause())) {
+                return REPETIR;
+            }
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            if (esperaMs < timeoutMs) {
+                throw new DeadlineExceededException(operacao);
+            }
+            throw new CoalescingTimeoutException(operacao, timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private Contadores registrarContadores(String operacao) {
+        Contadores contadores = new Contadores(
+                Counter.builder("coalescing.chamadas")
+                        .description("Chamadas que executaram a operação (lider) ou reaproveitaram uma execução (seguidor)")
+                        .tag("operacao", operacao)
+                        .tag("papel", "lider")
+                        .register(meterRegistry),
+                Counter.builder("coalescing.chamadas")
+                        .description("Chamadas que executaram a operação (lider) ou reaproveitaram uma execução (seguidor)")
+                        .tag("operacao", operacao)
+                        .tag("papel", "seguidor")
+                        .register(meterRegistry));
+
+        Gauge.builder("coalescing.ratio", contadores, Contadores::ratio)
+                .description("Fração das chamadas atendidas por uma execução compartilhada")
+                .tag("operacao", operacao)
+                .register(meterRegistry);
+
+        return contadores;
+    }
+
+    /**
+     * Operação a ser executada pelo primeiro chamador.
+     */
+    @FunctionalInterface
+    public interface Chamada<T> {
+        T executar() throws Throwable;
+    }
+
+    private record ChaveChamada(String operacao, List<Object> argumentos) {
+    }
+
+    private record Contadores(Counter lideres, Counter seguidores) {
+
+        double ratio() {
+            double total = lideres.count() + seguidores.count();
+            return total == 0 ? 0.0 : seguidores.count() / total;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prazo (deadline) da requisição em execução na thread atual.
+ *
+ * Definido pelo {@link DeadlineFilter} e consultado pelas camadas internas
+ * (gerenciador de transações, repositórios, coalescing e bulkheads) para
+ * limitar esperas e o tempo de execução dos comandos SQL.
+ */
+public final class RequestDeadline {
+
+    /**
+     * Valor retornado por {@link #restanteMs()} quando não há prazo definido.
+     */
+    public static final long SEM_PRAZO = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> PRAZO_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static boolean isDefinido() {
+        return PRAZO_NANOS.get() != null;
+    }
+
+    /**
+     * Tempo restante até o prazo, em milissegundos (pode ser negativo).
+     */
+    public static long restanteMs() {
+        Long prazo = PRAZO_NANOS.get();
+        if (prazo == null) {
+            return SEM_PRAZO;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(prazo - System.nanoTime());
+    }
+
+    /**
+     * Lança {@link DeadlineExceededException} se o prazo já foi atingido.
+     */
+    public static void verificar(String etapa) {
+        if (restanteMs() <= 0) {
+            throw new DeadlineExceededException(etapa);
+        }
+    }
+
+    static void definir(long duracaoMs) {
+        PRAZO_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracaoMs));
+    }
+
+    static void limpar() {
+        PRAZO_NANOS.remove();
+    }
+}
@@ -0,0 +1,48 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import com.exemplo.consultaprodutos.controller.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Escreve a resposta 503 padronizada usada pelos filtros de proteção contra
+ * sobrecarga, já que eles rejeitam a requisição antes do DispatcherServlet.
+ */
+@Component
+public class RespostaSobrecarga {
+
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSegundos;
+
+    @Autowired
+    public RespostaSobrecarga(ObjectMapper objectMapper,
+                              @Value("${consultaprodutos.admissao.retry-after-segundos:1}") long retryAfterSegundos) {
+        this.objectMapper = objectMapper;
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public void escrever(HttpServletResponse response, String mensagem) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Serviço sobrecarregado",
+                mensagem,
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                LocalDateTime.now(),
+                null
+        );
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -9,6 +9,10 @@ import com.exemplo.consultaprodutos.mapper.OperadorMapper;
 import com.exemplo.consultaprodutos.mapper.ProdutoMapper;
 import com.exemplo.consultaprodutos.repository.OperadorRepository;
 import com.exemplo.consultaprodutos.repository.ProdutoRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.JdbcFastPath;
+import com.exemplo.consultaprodutos.repository.jdbc.OperadorJdbcRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.ProdutoJdbcRepository;
+import com.exemplo.consultaprodutos.resilience.Coalesced;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -28,16 +32,25 @@ public class OperadorService {
     private final ProdutoRepository produtoRepository;
     private final OperadorMapper operadorMapper;
     private final ProdutoMapper produtoMapper;
+    private final OperadorJdbcRepository operadorJdbcRepository;
+    private final ProdutoJdbcRepository produtoJdbcRepository;
+    private final JdbcFastPath jdbcFastPath;
 
     @Autowired
     public OperadorService(OperadorRepository operadorRepository,
                           ProdutoRepository produtoRepository,
                           OperadorMapper operadorMapper,
-                          ProdutoMapper produtoMapper) {
+                          ProdutoMapper produtoMapper,
+                          OperadorJdbcRepository operadorJdbcRepository,
+                          ProdutoJdbcRepository produtoJdbcRepository,
+                          JdbcFastPath jdbcFastPath) {
         this.operadorRepository = operadorRepository;
         this.produtoRepository = produtoRepository;
         this.operadorMapper = operadorMapper;
         this.produtoMapper = produtoMapper;
+        this.operadorJdbcRepository = operadorJdbcRepository;
+        this.produtoJdbcRepository = produtoJdbcRepository;
+        this.jdbcFastPath = jdbcFastPath;
     }
 
     /**
@@ -55,8 +68,14 @@ public class OperadorService {
     /**
      * Busca operador por ID.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public OperadorResponseDTO buscarPorId(Long id) {
+        if (jdbcFastPath.habilitada(JdbcFastPath.Consulta.OPERADOR_POR_ID)) {
+            return operadorJdbcRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Operador não encontrado com ID: " + id));
+        }
+
         Operador operador = buscarOperadorPorId(id);
         Long totalProdutos = operadorRepository.countProdutosByOperadorId(id);
         
@@ -66,6 +85,7 @@ public class OperadorService {
     /**
      * Lista todos os operadores ativos.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<OperadorResponseDTO> listarTodos() {
         List<Operador> operadores = operadorRepository.findByAtivoTrueOrderByNome();
@@ -75,6 +95,7 @@ public class OperadorService {
     /**
      * Lista operadores com paginação.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public Page<OperadorResponseDTO> listarComPaginacao(Pageable pageable) {
         Page<Operador> operadores = operadorRepository.findByAtivoTrueOrderByNome(pageable);
@@ -84,6 +105,7 @@ public class OperadorService {
     /**
      * Busca operadores por nome.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<OperadorResponseDTO> buscarPorNome(String nome) {
         List<Operador> operadores = operadorRepository.findByNomeContainingIgnoreCaseAndAtivoTrue(nome);
@@ -93,6 +115,7 @@ public class OperadorService {
     /**
      * Busca operadores por nome com paginação.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public Page<OperadorResponseDTO> buscarPorNome(String nome, Pageable pageable) {
         Page<Operador> operadores = operadorRepository.findByNomeContainingIgnoreCaseAndAtivoTrue(nome, pageable);
@@ -102,8 +125,16 @@ public class OperadorService {
     /**
      * FUNCIONALIDADE PRINCIPAL: Busca produtos associados a um operador.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> buscarProdutosPorOperador(Long operadorId) {
+        if (jdbcFastPath.habilitada(JdbcFastPath.Consulta.PRODUTOS_POR_OPERADOR)) {
+            if (!operadorJdbcRepository.existsAtivoById(operadorId)) {
+                throw new RuntimeException("Operador não encontrado com ID: " + operadorId);
+            }
+            return produtoJdbcRepository.findProdutosResumoByOperadorId(operadorId);
+        }
+
         // Verifica se o operador existe
         buscarOperadorPorId(operadorId);
         
@@ -115,6 +146,7 @@ public class OperadorService {
     /**
      * FUNCIONALIDADE PRINCIPAL: Busca produtos associados a um operador com paginação.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public Page<ProdutoResponseDTO> buscarProdutosPorOperadorComPaginacao(Long operadorId, Pageable pageable) {
         // Verifica se o operador existe
@@ -128,6 +160,7 @@ public class OperadorService {
     /**
      * Busca produtos associados a um operador por categoria.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> buscarProdutosPorOperadorECategoria(Long operadorId, String categoria) {
         // Verifica se o operador existe
@@ -163,6 +196,7 @@ public class OperadorService {
     /**
      * Lista operadores que possuem produtos.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<OperadorResponseDTO> listarOperadoresComProdutos() {
         List<Operador> operadores = operadorRepository.findOperadoresComProdutos();
@@ -172,6 +206,7 @@ public class OperadorService {
     /**
      * Busca operador por email.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public OperadorResponseDTO buscarPorEmail(String email) {
         Operador operador = operadorRepository.findByEmailAndAtivoTrue(email)
@@ -5,6 +5,9 @@ import com.exemplo.consultaprodutos.dto.response.ProdutoResponseDTO;
 import com.exemplo.consultaprodutos.entity.Produto;
 import com.exemplo.consultaprodutos.mapper.ProdutoMapper;
 import com.exemplo.consultaprodutos.repository.ProdutoRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.JdbcFastPath;
+import com.exemplo.consultaprodutos.repository.jdbc.ProdutoJdbcRepository;
+import com.exemplo.consultaprodutos.resilience.Coalesced;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,11 +26,16 @@ public class ProdutoService {
 
     private final ProdutoRepository produtoRepository;
     private final ProdutoMapper produtoMapper;
+    private final ProdutoJdbcRepository produtoJdbcRepository;
+    private final JdbcFastPath jdbcFastPath;
 
     @Autowired
-    public ProdutoService(ProdutoRepository produtoRepository, ProdutoMapper produtoMapper) {
+    public ProdutoService(ProdutoRepository produtoRepository, ProdutoMapper produtoMapper,
+                          ProdutoJdbcRepository produtoJdbcRepository, JdbcFastPath jdbcFastPath) {
         this.produtoRepository = produtoRepository;
         this.produtoMapper = produtoMapper;
+        this.produtoJdbcRepository = produtoJdbcRepository;
+        this.jdbcFastPath = jdbcFastPath;
     }
 
     /**
@@ -48,8 +56,14 @@ public class ProdutoService {
     /**
      * Busca produto por ID.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public ProdutoResponseDTO buscarPorId(Long id) {
+        if (jdbcFastPath.habilitada(JdbcFastPath.Consulta.PRODUTO_POR_ID)) {
+            return produtoJdbcRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
+        }
+
         Produto produto = produtoRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com ID: " + id));
 
@@ -62,6 +76,7 @@ public class ProdutoService {
     /**
      * Lista todos os produtos ativos.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> listarTodos() {
         List<Produto> produtos = produtoRepository.findByAtivoTrueOrderByNome();
@@ -71,6 +86,7 @@ public class ProdutoService {
     /**
      * Lista produtos com paginação.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public Page<ProdutoResponseDTO> listarComPaginacao(Pageable pageable) {
         Page<Produto> produtos = produtoRepository.findByAtivoTrueOrderByNome(pageable);
@@ -80,6 +96,7 @@ public class ProdutoService {
     /**
      * Busca produtos por nome (busca parcial).
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> buscarPorNome(String nome) {
         List<Produto> produtos = produtoRepository.findByNomeContainingIgnoreCaseAndAtivoTrue(nome);
@@ -89,6 +106,7 @@ public class ProdutoService {
     /**
      * Busca produtos por categoria.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> buscarPorCategoria(String categoria) {
         List<Produto> produtos = produtoRepository.findByCategoriaAndAtivoTrueOrderByNome(categoria);
@@ -98,6 +116,7 @@ public class ProdutoService {
     /**
      * Busca produtos por faixa de preço.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> buscarPorFaixaPreco(BigDecimal precoMin, BigDecimal precoMax) {
         if (precoMin.compareTo(precoMax) > 0) {
@@ -111,8 +130,14 @@ public class ProdutoService {
     /**
      * Busca produto por código.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public ProdutoResponseDTO buscarPorCodigo(String codigo) {
+        if (jdbcFastPath.habilitada(JdbcFastPath.Consulta.PRODUTO_POR_CODIGO)) {
+            return produtoJdbcRepository.findByCodigo(codigo)
+                    .orElseThrow(() -> new RuntimeException("Produto não encontrado com código: " + codigo));
+        }
+
         Produto produto = produtoRepository.findByCodigoAndAtivoTrue(codigo)
                 .orElseThrow(() -> new RuntimeException("Produto não encontrado com código: " + codigo));
         
@@ -122,6 +147,7 @@ public class ProdutoService {
     /**
      * Lista produtos que possuem operadores.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> listarProdutosComOperadores() {
         List<Produto> produtos = produtoRepository.findProdutosComOperadores();
@@ -131,8 +157,12 @@ public class ProdutoService {
     /**
      * Lista todas as categorias distintas.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<String> listarCategorias() {
+        if (jdbcFastPath.habilitada(JdbcFastPath.Consulta.CATEGORIAS)) {
+            return produtoJdbcRepository.findDistinctCategorias();
+        }
         return produtoRepository.findDistinctCategorias();
     }
 
@@ -163,8 +193,13 @@ public class ProdutoService {
     /**
      * Busca produtos associados a um operador (FUNCIONALIDADE PRINCIPAL).
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> findProdutosByOperadorId(Long operadorId) {
+        if (jdbcFastPath.habilitada(JdbcFastPath.Consulta.PRODUTOS_POR_OPERADOR)) {
+            return produtoJdbcRepository.findProdutosByOperadorId(operadorId);
+        }
+
         List<Produto> produtos = produtoRepository.findProdutosByOperadorId(operadorId);
         return produtoMapper.toResponseDTOList(produtos);
     }
@@ -172,6 +207,7 @@ public class ProdutoService {
     /**
      * Busca produtos associados a um operador com paginação.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public Page<ProdutoResponseDTO> findProdutosByOperadorId(Long operadorId, Pageable pageable) {
         Page<Produto> produtos = produtoRepository.findProdutosByOperadorId(operadorId, pageable);
@@ -181,6 +217,7 @@ public class ProdutoService {
     /**
      * Busca produtos associados a um operador por categoria.
      */
+    @Coalesced
     @Transactional(readOnly = true)
     public List<ProdutoResponseDTO> findProdutosByOperadorIdAndCategoria(Long operadorId, String categoria) {
         List<Produto> produtos = produtoRepository.findProdutosByOperadorIdAndCategoria(operadorId, categoria);
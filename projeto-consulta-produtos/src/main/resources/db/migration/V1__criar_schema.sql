@@ -0,0 +1,45 @@
+-- Schema inicial, equivalente ao gerado anteriormente pelo Hibernate (ddl-auto)
+
+CREATE TABLE operador (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    data_criacao     TIMESTAMP(6) NOT NULL,
+    data_atualizacao TIMESTAMP(6) NOT NULL,
+    ativo            BOOLEAN      NOT NULL,
+    nome             VARCHAR(100) NOT NULL,
+    email            VARCHAR(150) NOT NULL,
+    telefone         VARCHAR(20)
+);
+
+CREATE UNIQUE INDEX idx_operador_email ON operador (email);
+CREATE INDEX idx_operador_ativo ON operador (ativo);
+
+CREATE TABLE produto (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    data_criacao     TIMESTAMP(6)   NOT NULL,
+    data_atualizacao TIMESTAMP(6)   NOT NULL,
+    ativo            BOOLEAN        NOT NULL,
+    nome             VARCHAR(100)   NOT NULL,
+    descricao        VARCHAR(500),
+    codigo           VARCHAR(50)    NOT NULL,
+    preco            NUMERIC(12, 2) NOT NULL,
+    categoria        VARCHAR(50)
+);
+
+CREATE UNIQUE INDEX idx_produto_codigo ON produto (codigo);
+CREATE INDEX idx_produto_categoria ON produto (categoria);
+CREATE INDEX idx_produto_ativo ON produto (ativo);
+
+CREATE TABLE operador_produto (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    operador_id     BIGINT       NOT NULL,
+    produto_id      BIGINT       NOT NULL,
+    data_associacao TIMESTAMP(6) NOT NULL,
+    ativo           BOOLEAN      NOT NULL,
+    CONSTRAINT uk_operador_produto UNIQUE (operador_id, produto_id),
+    CONSTRAINT fk_operador_produto_operador FOREIGN KEY (operador_id) REFERENCES operador (id),
+    CONSTRAINT fk_operador_produto_produto FOREIGN KEY (produto_id) REFERENCES produto (id)
+);
+
+CREATE INDEX idx_operador_produto_operador ON operador_produto (operador_id, ativo);
+CREATE INDEX idx_operador_produto_produto ON operador_produto (produto_id, ativo);
+CREATE INDEX idx_operador_produto_data ON operador_produto (data_associacao);
@@ -0,0 +1,37 @@
+-- Índices compostos alinhados às consultas dos repositórios.
+-- Os índices de coluna única sobre "ativo" têm cardinalidade 2 e não
+-- filtram nada; os índices de operador_produto sem produto_id/operador_id
+-- obrigavam o JOIN principal a voltar à tabela para cada linha.
+
+DROP INDEX idx_operador_ativo;
+DROP INDEX idx_produto_ativo;
+DROP INDEX idx_produto_categoria;
+DROP INDEX idx_operador_produto_operador;
+DROP INDEX idx_operador_produto_produto;
+DROP INDEX idx_operador_produto_data;
+
+-- ProdutoRepository.findProdutosByOperadorId / findProdutosByOperadorIdAndCategoria,
+-- OperadorRepository.countProdutosByOperadorId e
+-- OperadorProdutoRepository.countByOperadorIdAndAtivoTrue:
+-- WHERE operador_id = ? AND ativo, JOIN por produto_id resolvido no próprio índice
+CREATE INDEX idx_operador_produto_cobertura ON operador_produto (operador_id, ativo, produto_id);
+
+-- ProdutoRepository.countOperadoresByProdutoId e
+-- OperadorProdutoRepository.countByProdutoIdAndAtivoTrue
+CREATE INDEX idx_produto_operador_cobertura ON operador_produto (produto_id, ativo, operador_id);
+
+-- OperadorProdutoRepository.findRecentAssociations / findByDataAssociacaoBetweenAndAtivoTrue:
+-- WHERE ativo ORDER BY data_associacao
+CREATE INDEX idx_operador_produto_ativo_data ON operador_produto (ativo, data_associacao);
+
+-- Listagens de produtos ativos ordenadas por nome (findByAtivoTrueOrderByNome)
+CREATE INDEX idx_produto_ativo_nome ON produto (ativo, nome);
+
+-- findByCategoriaAndAtivoTrueOrderByNome e findDistinctCategorias
+CREATE INDEX idx_produto_categoria_ativo_nome ON produto (categoria, ativo, nome);
+
+-- findByPrecoRange: WHERE ativo AND preco BETWEEN ? AND ? ORDER BY preco
+CREATE INDEX idx_produto_ativo_preco ON produto (ativo, preco);
+
+-- Listagens de operadores ativos ordenadas por nome
+CREATE INDEX idx_operador_ativo_nome ON operador (ativo, nome);
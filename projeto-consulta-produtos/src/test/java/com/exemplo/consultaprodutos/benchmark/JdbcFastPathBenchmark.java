@@ -0,0 +1,104 @@
+package com.exemplo.consultaprodutos.benchmark;
+
+import com.exemplo.consultaprodutos.ConsultaProdutosApplication;
+import com.exemplo.consultaprodutos.dto.response.ProdutoResponseDTO;
+import com.exemplo.consultaprodutos.mapper.ProdutoMapper;
+import com.exemplo.consultaprodutos.repository.OperadorRepository;
+import com.exemplo.consultaprodutos.repository.ProdutoRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.ProdutoJdbcRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o caminho JPA (entidades + mapper) com os repositórios JDBC que
+ * mapeiam o ResultSet direto para os DTOs, nas consultas de produtos por
+ * operador e de produto por ID.
+ *
+ * Usa o contexto completo da aplicação (sem servidor web) sobre a massa de
+ * db/massa-planos; ambos os caminhos executam em transação read-only, como
+ * nos serviços.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcFastPathBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private TransactionTemplate transacaoLeitura;
+    private ProdutoRepository produtoRepository;
+    private ProdutoMapper produtoMapper;
+    private ProdutoJdbcRepository produtoJdbcRepository;
+    private Long operadorId;
+    private Long produtoId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(ConsultaProdutosApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-jdbc",
+                        "spring.flyway.locations=classpath:db/migration,classpath:db/massa-planos",
+                        "consultaprodutos.jfr.habilitada=false")
+                .run();
+
+        transacaoLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        transacaoLeitura.setReadOnly(true);
+        produtoRepository = contexto.getBean(ProdutoRepository.class);
+        produtoMapper = contexto.getBean(ProdutoMapper.class);
+        produtoJdbcRepository = contexto.getBean(ProdutoJdbcRepository.class);
+
+        operadorId = contexto.getBean(OperadorRepository.class)
+                .findByEmailAndAtivoTrue("operador0@exemplo.com").orElseThrow().getId();
+        produtoId = produtoRepository.findByCodigoAndAtivoTrue("COD0000").orElseThrow().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> produtosPorOperadorJpa() {
+        return transacaoLeitura.execute(status ->
+                produtoMapper.toResponseDTOList(produtoRepository.findProdutosByOperadorId(operadorId)));
+    }
+
+    @Benchmark
+    public List<ProdutoResponseDTO> produtosPorOperadorJdbc() {
+        return transacaoLeitura.execute(status -> produtoJdbcRepository.findProdutosByOperadorId(operadorId));
+    }
+
+    @Benchmark
+    public ProdutoResponseDTO produtoPorIdJpa() {
+        return transacaoLeitura.execute(status -> produtoMapper.toResponseDTO(
+                produtoRepository.findById(produtoId).orElseThrow(),
+                produtoRepository.countOperadoresByProdutoId(produtoId)));
+    }
+
+    @Benchmark
+    public ProdutoResponseDTO produtoPorIdJdbc() {
+        return transacaoLeitura.execute(status -> produtoJdbcRepository.findById(produtoId).orElseThrow());
+    }
+}
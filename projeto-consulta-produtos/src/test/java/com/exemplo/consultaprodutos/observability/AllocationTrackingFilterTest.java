@@ -0,0 +1,94 @@
+package com.exemplo.consultaprodutos.observability;
+
+import com.exemplo.consultaprodutos.resilience.EndpointClassifier;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para AllocationTrackingFilter.
+ */
+class AllocationTrackingFilterTest {
+
+    private static final int TAMANHO_ALOCADO = 4 * 1024 * 1024;
+
+    private byte[] alocado;
+
+    @Test
+    void doFilter_DeveRegistrarAlocacaoPorRota_QuandoRequisicaoDaApi() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AllocationTrackingFilter filter = new AllocationTrackingFilter(
+                new EndpointClassifier(List.of("/api/produtos")), registry, true, 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/produtos");
+        FilterChain chain = (req, res) -> alocado = new byte[TAMANHO_ALOCADO];
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        DistributionSummary alocacao = registry.find("alocacao.requisicao")
+                .tag("rota", "GET /api/produtos")
+                .summary();
+        assertNotNull(alocacao);
+        assertEquals(1, alocacao.count());
+        assertTrue(alocacao.totalAmount() >= TAMANHO_ALOCADO);
+        assertEquals(1.0, registry.get("alocacao.requisicao.acima-limite").counter().count());
+        assertEquals(TAMANHO_ALOCADO, alocado.length);
+    }
+
+    @Test
+    void doFilter_DeveContarComoNaoMedida_QuandoVirtualThread() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AllocationTrackingFilter filter = new AllocationTrackingFilter(
+                new EndpointClassifier(List.of("/api/produtos")), registry, true, 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/produtos");
+        AtomicBoolean chamouCadeia = new AtomicBoolean();
+        AtomicReference<Exception> erro = new AtomicReference<>();
+
+        // When
+        Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> chamouCadeia.set(true));
+            } catch (Exception e) {
+                erro.set(e);
+            }
+        }).join();
+
+        // Then
+        assertNull(erro.get());
+        assertTrue(chamouCadeia.get());
+        assertNull(registry.find("alocacao.requisicao").summary());
+        assertEquals(1.0, registry.get("alocacao.requisicao.nao-medida")
+                .tag("rota", "GET /api/produtos")
+                .counter().count());
+    }
+
+    @Test
+    void doFilter_NaoDeveMedir_QuandoRequisicaoForaDaApi() throws Exception {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AllocationTrackingFilter filter = new AllocationTrackingFilter(
+                new EndpointClassifier(List.of("/api/produtos")), registry, true, 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        // Then
+        assertNull(registry.find("alocacao.requisicao").summary());
+    }
+}
@@ -0,0 +1,134 @@
+package com.exemplo.consultaprodutos.observability;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para ConnectionAttributionDataSource e ConnectionAttributionMonitor.
+ */
+class ConnectionAttributionDataSourceTest {
+
+    private static final long RETENCAO_MS = 50;
+
+    private SimpleMeterRegistry registry;
+    private ConnectionAttributionMonitor monitor;
+    private Connection conexaoPool;
+    private ConnectionAttributionDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        monitor = new ConnectionAttributionMonitor(registry, 2000);
+        conexaoPool = mock(Connection.class);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(conexaoPool);
+        dataSource = new ConnectionAttributionDataSource(pool, monitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getConnection_DeveAtribuirRetencaoARota_QuandoDevolvidaNaRequisicao() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/produtos/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When
+        Connection conexao = dataSource.getConnection();
+        assertEquals(1, monitor.getRetiradasAbertas());
+        Thread.sleep(RETENCAO_MS);
+        conexao.close();
+        conexao.close();
+
+        // Then
+        verify(conexaoPool, times(2)).close();
+        assertEquals(0, monitor.getRetiradasAbertas());
+        Timer uso = registry.find("conexoes.uso")
+                .tag("rota", "GET /api/produtos/{id}")
+                .tag("metodo", ConnectionAttributionMonitor.SEM_METODO)
+                .timer();
+        assertNotNull(uso);
+        assertEquals(1, uso.count());
+        assertTrue(uso.totalTime(TimeUnit.MILLISECONDS) >= RETENCAO_MS);
+        assertEquals(1, registry.get("conexoes.espera").tag("rota", "GET /api/produtos/{id}").timer().count());
+        assertNull(registry.find("conexoes.uso.renderizacao").timer());
+    }
+
+    @Test
+    void getConnection_DeveAtribuirAoOpenInView_QuandoRetiradaDuranteRenderizacao() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/operadores/1/produtos");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/operadores/{id}/produtos");
+        request.setAttribute(ConnectionAttributionMonitor.ATRIBUTO_INICIO_RENDERIZACAO, System.nanoTime());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // When
+        dataSource.getConnection().close();
+
+        // Then
+        Timer uso = registry.get("conexoes.uso")
+                .tag("rota", "GET /api/operadores/{id}/produtos")
+                .timer();
+        assertEquals(ConnectionAttributionMonitor.ORIGEM_OPEN_IN_VIEW, uso.getId().getTag("metodo"));
+        assertEquals(1, uso.count());
+    }
+
+    @Test
+    void getConnection_DeveMedirRenderizacao_QuandoConexaoDoServicoRetidaAteARenderizacao() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/produtos");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/produtos");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Connection conexao = dataSource.getConnection();
+
+        // When
+        request.setAttribute(ConnectionAttributionMonitor.ATRIBUTO_INICIO_RENDERIZACAO, System.nanoTime());
+        Thread.sleep(RETENCAO_MS);
+        conexao.close();
+
+        // Then
+        Timer renderizacao = registry.get("conexoes.uso.renderizacao").tag("rota", "GET /api/produtos").timer();
+        assertEquals(1, renderizacao.count());
+        assertTrue(renderizacao.totalTime(TimeUnit.MILLISECONDS) >= RETENCAO_MS);
+        assertTrue(registry.get("conexoes.uso").timer().totalTime(TimeUnit.NANOSECONDS)
+                >= renderizacao.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void retencoesLongas_DeveListarConexaoRetida_QuandoPassaDoLimite() throws Exception {
+        // Given
+        monitor = new ConnectionAttributionMonitor(registry, 0);
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenReturn(conexaoPool);
+        Connection conexao = new ConnectionAttributionDataSource(pool, monitor).getConnection();
+
+        // When
+        List<ConnectionAttributionMonitor.RetencaoLonga> retencoes = monitor.retencoesLongas();
+        conexao.close();
+
+        // Then
+        assertEquals(1, retencoes.size());
+        assertEquals(ConnectionAttributionMonitor.SEM_ROTA, retencoes.get(0).rota());
+        assertEquals(Thread.currentThread().getName(), retencoes.get(0).thread());
+        assertTrue(monitor.retencoesLongas().isEmpty());
+    }
+}
@@ -0,0 +1,86 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SlowQueryMonitor.
+ */
+class SlowQueryMonitorTest {
+
+    private static final String SQL = "select p1_0.id from produto p1_0 where p1_0.codigo=?";
+
+    private SlowQueryMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new SlowQueryMonitor(true, 100, 10, 100, 5);
+    }
+
+    @Test
+    void registrar_DeveRegistrarLenta_QuandoDuracaoPassaDoLimite() {
+        // When
+        monitor.registrar(SQL, Arrays.asList("COD001", null), TimeUnit.MILLISECONDS.toNanos(150), 1);
+        monitor.registrar(SQL, List.of("COD002"), TimeUnit.MILLISECONDS.toNanos(50), 1);
+
+        // Then
+        List<SlowQueryMonitor.ConsultaLenta> lentas = monitor.consultasLentas();
+        assertEquals(1, lentas.size());
+        assertEquals(SQL, lentas.get(0).sql());
+        assertEquals(List.of("COD001", "null"), lentas.get(0).parametros());
+        assertEquals(150, lentas.get(0).duracaoMs());
+        assertNull(lentas.get(0).rota());
+    }
+
+    @Test
+    void estatisticas_DeveCalcularPercentisELinhas_QuandoHaExecucoes() {
+        // Given
+        for (int i = 1; i <= 100; i++) {
+            monitor.registrar(SQL, List.of(), TimeUnit.MILLISECONDS.toNanos(i), 2);
+        }
+
+        // When
+        List<SlowQueryMonitor.EstatisticaConsulta> estatisticas = monitor.estatisticas();
+
+        // Then
+        assertEquals(1, estatisticas.size());
+        SlowQueryMonitor.EstatisticaConsulta estatistica = estatisticas.get(0);
+        assertEquals(100, estatistica.execucoes());
+        assertEquals(50.0, estatistica.p50Ms(), 0.001);
+        assertEquals(99.0, estatistica.p99Ms(), 0.001);
+        assertEquals(100.0, estatistica.maximoMs(), 0.001);
+        assertEquals(200, estatistica.linhas());
+        assertEquals(2.0, estatistica.mediaLinhas(), 0.001);
+    }
+
+    @Test
+    void consultasLentas_DeveManterApenasAsMaisRecentes_QuandoPassaDoMaximo() {
+        // When
+        for (int i = 0; i < 8; i++) {
+            monitor.registrar(SQL + " -- " + i, List.of(), TimeUnit.MILLISECONDS.toNanos(200), 0);
+        }
+
+        // Then
+        List<SlowQueryMonitor.ConsultaLenta> lentas = monitor.consultasLentas();
+        assertEquals(5, lentas.size());
+        assertEquals(SQL + " -- 7", lentas.get(0).sql());
+    }
+
+    @Test
+    void registrar_NaoDeveAgregarNovosComandos_QuandoAtingeMaximoDeConsultas() {
+        // When
+        for (int i = 0; i < 12; i++) {
+            monitor.registrar(SQL + " -- " + i, List.of(), TimeUnit.MILLISECONDS.toNanos(1), 0);
+        }
+
+        // Then
+        assertEquals(10, monitor.estatisticas().size());
+        assertEquals(2, monitor.getConsultasNaoAgregadas());
+    }
+}
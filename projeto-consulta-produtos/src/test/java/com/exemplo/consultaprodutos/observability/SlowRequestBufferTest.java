@@ -0,0 +1,51 @@
+package com.exemplo.consultaprodutos.observability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para SlowRequestBuffer.
+ */
+class SlowRequestBufferTest {
+
+    @Test
+    void adicionar_DeveSobrescreverAMaisAntiga_QuandoBufferEstaCheio() {
+        // Given
+        SlowRequestBuffer buffer = new SlowRequestBuffer(3);
+        Instant base = Instant.parse("2024-01-01T10:00:00Z");
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            buffer.adicionar(requisicao("/api/produtos/" + i, base.plusSeconds(i)));
+        }
+
+        // Then
+        List<SlowRequestBuffer.RequisicaoLenta> requisicoes = buffer.requisicoes();
+        assertEquals(3, requisicoes.size());
+        assertEquals(List.of("/api/produtos/4", "/api/produtos/3", "/api/produtos/2"),
+                requisicoes.stream().map(SlowRequestBuffer.RequisicaoLenta::uri).toList());
+    }
+
+    @Test
+    void limpar_DeveDescartarRequisicoes() {
+        // Given
+        SlowRequestBuffer buffer = new SlowRequestBuffer(3);
+        buffer.adicionar(requisicao("/api/operadores/1/produtos", Instant.now()));
+
+        // When
+        buffer.limpar();
+
+        // Then
+        assertTrue(buffer.requisicoes().isEmpty());
+    }
+
+    private SlowRequestBuffer.RequisicaoLenta requisicao(String uri, Instant instante) {
+        return new SlowRequestBuffer.RequisicaoLenta(instante, "GET", uri, null, 200, 750.0,
+                Map.of(RequestTimeline.Camada.REPOSITORIO, 600.0), List.of(), 0);
+    }
+}
@@ -0,0 +1,517 @@
+package com.exemplo.consultaprodutos.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de regressão dos planos de execução dos repositórios.
+ *
+ * Cada método de repositório é executado contra a massa de dados da migração
+ * de teste db/massa-planos (com estatísticas do ANALYZE, em um banco próprio);
+ * os comandos SQL enviados ao banco (com os parâmetros vinculados) são
+ * capturados e reexecutados com EXPLAIN ANALYZE do H2. O teste falha quando
+ * o índice esperado deixa de ser usado, quando operador_produto passa a ser
+ * lido por varredura completa ou quando as linhas lidas passam do limite.
+ *
+ * Os índices esperados são os criados pelas migrações em db/migration.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:planos-consulta",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/massa-planos"
+})
+@ActiveProfiles("test")
+@Import(QueryPlanRegressionTest.CapturaSqlConfig.class)
+class QueryPlanRegressionTest {
+
+    private static final int TOTAL_OPERADORES = 20;
+    private static final int TOTAL_PRODUTOS = 200;
+    private static final int PRODUTOS_POR_OPERADOR = 10;
+    private static final int TOTAL_ASSOCIACOES = TOTAL_OPERADORES * PRODUTOS_POR_OPERADOR;
+    private static final int TOTAL_CATEGORIAS = 5;
+    private static final String EMAIL_OPERADOR = "operador0@exemplo.com";
+    private static final String CODIGO_PRODUTO = "COD0000";
+
+    private static final String VARREDURA_OPERADOR_PRODUTO = "OPERADOR_PRODUTO.tableScan";
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    private static final CapturaSql CAPTURA = new CapturaSql();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private OperadorRepository operadorRepository;
+
+    @Autowired
+    private OperadorProdutoRepository operadorProdutoRepository;
+
+    private Long operadorId;
+    private Long produtoId;
+
+    @BeforeEach
+    void setUp() {
+        operadorId = operadorRepository.findByEmailAndAtivoTrue(EMAIL_OPERADOR).orElseThrow().getId();
+        produtoId = produtoRepository.findByCodigoAndAtivoTrue(CODIGO_PRODUTO).orElseThrow().getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        CAPTURA.parar();
+    }
+
+    // ProdutoRepository
+
+    @Test
+    void produto_findByCodigoAndAtivoTrue_DeveUsarIndiceDeCodigo() {
+        verificarPlano(() -> produtoRepository.findByCodigoAndAtivoTrue(CODIGO_PRODUTO),
+                2, "IDX_PRODUTO_CODIGO");
+    }
+
+    @Test
+    void produto_findByAtivoTrueOrderByNome_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> produtoRepository.findByAtivoTrueOrderByNome(),
+                TOTAL_PRODUTOS, "IDX_PRODUTO_ATIVO_NOME");
+    }
+
+    @Test
+    void produto_findByAtivoTrueOrderByNomePaginado_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> produtoRepository.findByAtivoTrueOrderByNome(PageRequest.of(1, 20)),
+                TOTAL_PRODUTOS, "IDX_PRODUTO_ATIVO_NOME");
+    }
+
+    @Test
+    void produto_findByNomeContainingIgnoreCaseAndAtivoTrue_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> produtoRepository.findByNomeContainingIgnoreCaseAndAtivoTrue("produto 01"),
+                TOTAL_PRODUTOS, "IDX_PRODUTO_ATIVO_NOME");
+    }
+
+    @Test
+    void produto_findByCategoriaAndAtivoTrueOrderByNome_DeveUsarIndiceCategoriaAtivoNome() {
+        verificarPlano(() -> produtoRepository.findByCategoriaAndAtivoTrueOrderByNome("Móveis"),
+                TOTAL_PRODUTOS / TOTAL_CATEGORIAS + 1, "IDX_PRODUTO_CATEGORIA_ATIVO_NOME");
+    }
+
+    @Test
+    void produto_findByPrecoRange_DeveUsarIndiceAtivoPreco() {
+        verificarPlano(() -> produtoRepository.findByPrecoRange(new BigDecimal("20"), new BigDecimal("40")),
+                25, "IDX_PRODUTO_ATIVO_PRECO");
+    }
+
+    @Test
+    void produto_existsByCodigoAndIdNotAndAtivoTrue_DeveUsarIndiceDeCodigo() {
+        verificarPlano(() -> produtoRepository.existsByCodigoAndIdNotAndAtivoTrue(CODIGO_PRODUTO, -1L),
+                2, "IDX_PRODUTO_CODIGO");
+    }
+
+    @Test
+    void produto_existsByCodigoAndAtivoTrue_DeveUsarIndiceDeCodigo() {
+        verificarPlano(() -> produtoRepository.existsByCodigoAndAtivoTrue(CODIGO_PRODUTO),
+                2, "IDX_PRODUTO_CODIGO");
+    }
+
+    @Test
+    void produto_findProdutosByOperadorId_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> produtoRepository.findProdutosByOperadorId(operadorId),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void produto_findProdutosByOperadorIdPaginado_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> produtoRepository.findProdutosByOperadorId(operadorId, PageRequest.of(0, 5)),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void produto_findProdutosByOperadorIdAndCategoria_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> produtoRepository.findProdutosByOperadorIdAndCategoria(operadorId, "Eletrônicos"),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void produto_findProdutosComOperadores_NaoDeveVarrerOperadorProduto() {
+        verificarPlano(() -> produtoRepository.findProdutosComOperadores(),
+                TOTAL_ASSOCIACOES + 1);
+    }
+
+    @Test
+    void produto_countOperadoresByProdutoId_DeveUsarIndiceDeCoberturaPorProduto() {
+        verificarPlano(() -> produtoRepository.countOperadoresByProdutoId(produtoId),
+                TOTAL_OPERADORES + 1, "IDX_PRODUTO_OPERADOR_COBERTURA");
+    }
+
+    @Test
+    void produto_findDistinctCategorias_DeveUsarIndiceDeProdutosAtivos() {
+        verificarPlano(() -> produtoRepository.findDistinctCategorias(),
+                TOTAL_PRODUTOS, "IDX_PRODUTO_ATIVO_NOME|IDX_PRODUTO_ATIVO_PRECO|IDX_PRODUTO_CATEGORIA_ATIVO_NOME");
+    }
+
+    // OperadorRepository
+
+    @Test
+    void operador_findByEmailAndAtivoTrue_DeveUsarIndiceDeEmail() {
+        verificarPlano(() -> operadorRepository.findByEmailAndAtivoTrue(EMAIL_OPERADOR),
+                2, "IDX_OPERADOR_EMAIL");
+    }
+
+    @Test
+    void operador_findByAtivoTrueOrderByNome_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> operadorRepository.findByAtivoTrueOrderByNome(),
+                TOTAL_OPERADORES, "IDX_OPERADOR_ATIVO_NOME");
+    }
+
+    @Test
+    void operador_findByAtivoTrueOrderByNomePaginado_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> operadorRepository.findByAtivoTrueOrderByNome(PageRequest.of(0, 5)),
+                TOTAL_OPERADORES, "IDX_OPERADOR_ATIVO_NOME");
+    }
+
+    @Test
+    void operador_findByNomeContainingIgnoreCaseAndAtivoTrue_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> operadorRepository.findByNomeContainingIgnoreCaseAndAtivoTrue("operador 1"),
+                TOTAL_OPERADORES, "IDX_OPERADOR_ATIVO_NOME");
+    }
+
+    @Test
+    void operador_findByNomeContainingIgnoreCaseAndAtivoTruePaginado_DeveUsarIndiceAtivoNome() {
+        verificarPlano(() -> operadorRepository.findByNomeContainingIgnoreCaseAndAtivoTrue("operador", PageRequest.of(0, 5)),
+                TOTAL_OPERADORES, "IDX_OPERADOR_ATIVO_NOME");
+    }
+
+    @Test
+    void operador_existsByEmailAndIdNotAndAtivoTrue_DeveUsarIndiceDeEmail() {
+        verificarPlano(() -> operadorRepository.existsByEmailAndIdNotAndAtivoTrue(EMAIL_OPERADOR, -1L),
+                2, "IDX_OPERADOR_EMAIL");
+    }
+
+    @Test
+    void operador_existsByEmailAndAtivoTrue_DeveUsarIndiceDeEmail() {
+        verificarPlano(() -> operadorRepository.existsByEmailAndAtivoTrue(EMAIL_OPERADOR),
+                2, "IDX_OPERADOR_EMAIL");
+    }
+
+    @Test
+    void operador_findOperadoresComProdutos_NaoDeveVarrerOperadorProduto() {
+        verificarPlano(() -> operadorRepository.findOperadoresComProdutos(),
+                TOTAL_ASSOCIACOES + 1);
+    }
+
+    @Test
+    void operador_findOperadoresComProdutosPaginado_NaoDeveVarrerOperadorProduto() {
+        verificarPlano(() -> operadorRepository.findOperadoresComProdutos(PageRequest.of(0, 5)),
+                TOTAL_ASSOCIACOES + 1);
+    }
+
+    @Test
+    void operador_countProdutosByOperadorId_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> operadorRepository.countProdutosByOperadorId(operadorId),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    // OperadorProdutoRepository
+
+    @Test
+    void associacao_findByOperadorIdAndProdutoIdAndAtivoTrue_DeveUsarIndiceDoPar() {
+        verificarPlano(() -> operadorProdutoRepository.findByOperadorIdAndProdutoIdAndAtivoTrue(operadorId, produtoId),
+                2, "UK_OPERADOR_PRODUTO|IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_findByOperadorIdAndAtivoTrueOrderByDataAssociacao_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> operadorProdutoRepository.findByOperadorIdAndAtivoTrueOrderByDataAssociacao(operadorId),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_findByProdutoIdAndAtivoTrueOrderByDataAssociacao_DeveUsarIndiceDeCoberturaPorProduto() {
+        verificarPlano(() -> operadorProdutoRepository.findByProdutoIdAndAtivoTrueOrderByDataAssociacao(produtoId),
+                TOTAL_OPERADORES + 1, "IDX_PRODUTO_OPERADOR_COBERTURA");
+    }
+
+    @Test
+    void associacao_findByOperadorIdAndAtivoTrueOrderByDataAssociacaoPaginado_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> operadorProdutoRepository.findByOperadorIdAndAtivoTrueOrderByDataAssociacao(operadorId, PageRequest.of(0, 3)),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_findByProdutoIdAndAtivoTrueOrderByDataAssociacaoPaginado_DeveUsarIndiceDeCoberturaPorProduto() {
+        verificarPlano(() -> operadorProdutoRepository.findByProdutoIdAndAtivoTrueOrderByDataAssociacao(produtoId, PageRequest.of(0, 3)),
+                TOTAL_OPERADORES + 1, "IDX_PRODUTO_OPERADOR_COBERTURA");
+    }
+
+    @Test
+    void associacao_existsByOperadorIdAndProdutoIdAndAtivoTrue_DeveUsarIndiceDoPar() {
+        verificarPlano(() -> operadorProdutoRepository.existsByOperadorIdAndProdutoIdAndAtivoTrue(operadorId, produtoId),
+                2, "UK_OPERADOR_PRODUTO|IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_countByOperadorIdAndAtivoTrue_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> operadorProdutoRepository.countByOperadorIdAndAtivoTrue(operadorId),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_countByProdutoIdAndAtivoTrue_DeveUsarIndiceDeCoberturaPorProduto() {
+        verificarPlano(() -> operadorProdutoRepository.countByProdutoIdAndAtivoTrue(produtoId),
+                TOTAL_OPERADORES + 1, "IDX_PRODUTO_OPERADOR_COBERTURA");
+    }
+
+    @Test
+    void associacao_findByDataAssociacaoBetweenAndAtivoTrue_DeveUsarIndiceAtivoData() {
+        LocalDateTime inicio = LocalDateTime.now().minusDays(TOTAL_ASSOCIACOES - 10);
+        verificarPlano(() -> operadorProdutoRepository.findByDataAssociacaoBetweenAndAtivoTrue(inicio, inicio.plusDays(20)),
+                25, "IDX_OPERADOR_PRODUTO_ATIVO_DATA");
+    }
+
+    @Test
+    void associacao_findRecentAssociations_DeveUsarIndiceAtivoData() {
+        verificarPlano(() -> operadorProdutoRepository.findRecentAssociations(PageRequest.of(0, 10)),
+                TOTAL_ASSOCIACOES + 1, "IDX_OPERADOR_PRODUTO_ATIVO_DATA");
+    }
+
+    @Test
+    void associacao_findOperadoresComMaisProdutos_NaoDeveVarrerOperadorProduto() {
+        verificarPlano(() -> operadorProdutoRepository.findOperadoresComMaisProdutos(3),
+                TOTAL_ASSOCIACOES + 1);
+    }
+
+    @Test
+    void associacao_softDeleteByOperadorIdAndProdutoId_DeveUsarIndiceDoPar() {
+        verificarPlano(() -> operadorProdutoRepository.softDeleteByOperadorIdAndProdutoId(operadorId, produtoId),
+                2, "UK_OPERADOR_PRODUTO|IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_softDeleteByOperadorId_DeveUsarIndiceDeCobertura() {
+        verificarPlano(() -> operadorProdutoRepository.softDeleteByOperadorId(operadorId),
+                PRODUTOS_POR_OPERADOR + 1, "IDX_OPERADOR_PRODUTO_COBERTURA");
+    }
+
+    @Test
+    void associacao_softDeleteByProdutoId_DeveUsarIndiceDeCoberturaPorProduto() {
+        verificarPlano(() -> operadorProdutoRepository.softDeleteByProdutoId(produtoId),
+                TOTAL_OPERADORES + 1, "IDX_PRODUTO_OPERADOR_COBERTURA");
+    }
+
+    /**
+     * Executa a chamada, explica cada comando SQL gerado e valida os planos.
+     *
+     * @param maxLinhasLidas limite de linhas lidas (scanCount) por tabela do plano
+     * @param indicesEsperados índices que devem aparecer em algum dos planos;
+     *                         alternativas equivalentes são separadas por "|"
+     */
+    private void verificarPlano(Runnable chamada, long maxLinhasLidas, String... indicesEsperados) {
+        // Given
+        entityManager.clear();
+
+        // When
+        CAPTURA.iniciar();
+        try {
+            chamada.run();
+        } finally {
+            CAPTURA.parar();
+        }
+        List<String> planos = CAPTURA.comandos().stream()
+                .map(this::explicar)
+                .collect(Collectors.toList());
+
+        // Then
+        assertFalse(planos.isEmpty(), "Nenhum comando SQL foi executado");
+        String todosPlanos = String.join("\n\n", planos);
+
+        for (String plano : planos) {
+            assertFalse(plano.contains(VARREDURA_OPERADOR_PRODUTO),
+                    "Varredura completa em operador_produto:\n" + plano);
+
+            Matcher matcher = SCAN_COUNT.matcher(plano);
+            while (matcher.find()) {
+                long linhasLidas = Long.parseLong(matcher.group(1));
+                assertTrue(linhasLidas <= maxLinhasLidas,
+                        "Linhas lidas (" + linhasLidas + ") acima do limite de " + maxLinhasLidas + ":\n" + plano);
+            }
+        }
+
+        for (String esperado : indicesEsperados) {
+            boolean utilizado = Arrays.stream(esperado.split("\\|"))
+                    .anyMatch(indice -> todosPlanos.contains("PUBLIC." + indice));
+            assertTrue(utilizado, "Índice " + esperado + " não utilizado:\n" + todosPlanos);
+        }
+    }
+
+    /**
+     * Reexecuta o comando capturado com EXPLAIN ANALYZE na mesma conexão da
+     * transação do teste, vinculando os mesmos parâmetros.
+     */
+    private String explicar(ComandoCapturado comando) {
+        return entityManager.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN ANALYZE " + comando.sql())) {
+                for (Parametro parametro : comando.parametros()) {
+                    parametro.aplicar(statement);
+                }
+                try (ResultSet resultado = statement.executeQuery()) {
+                    assertTrue(resultado.next(), "EXPLAIN sem resultado para: " + comando.sql());
+                    return resultado.getString(1);
+                }
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class CapturaSqlConfig {
+
+        @Bean
+        static BeanPostProcessor capturaSqlBeanPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof CapturaSqlDataSource)
+                            ? new CapturaSqlDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * DataSource que entrega conexões instrumentadas para registrar os
+     * comandos preparados executados enquanto a captura está ativa.
+     */
+    static class CapturaSqlDataSource extends DelegatingDataSource {
+
+        CapturaSqlDataSource(DataSource alvo) {
+            super(alvo);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return instrumentar(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return instrumentar(super.getConnection(username, password));
+        }
+
+        private static Connection instrumentar(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object resultado = invocar(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && resultado instanceof PreparedStatement statement) {
+                            return instrumentar(statement, (String) args[0]);
+                        }
+                        return resultado;
+                    });
+        }
+
+        private static PreparedStatement instrumentar(PreparedStatement statement, String sql) {
+            List<Parametro> parametros = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        String nome = method.getName();
+                        if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            parametros.add(new Parametro(method, args.clone()));
+                        } else if (nome.equals("clearParameters")) {
+                            parametros.clear();
+                        } else if ((nome.equals("executeQuery") || nome.equals("executeUpdate") || nome.equals("execute"))
+                                && (args == null || args.length == 0)) {
+                            CAPTURA.registrar(new ComandoCapturado(sql, List.copyOf(parametros)));
+                        }
+                        return invocar(statement, method, args);
+                    });
+        }
+
+        private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(alvo, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    static class CapturaSql {
+
+        private final List<ComandoCapturado> comandos = new ArrayList<>();
+        private volatile boolean ativa;
+
+        synchronized void iniciar() {
+            comandos.clear();
+            ativa = true;
+        }
+
+        void parar() {
+            ativa = false;
+        }
+
+        synchronized void registrar(ComandoCapturado comando) {
+            if (ativa) {
+                comandos.add(comando);
+            }
+        }
+
+        synchronized List<ComandoCapturado> comandos() {
+            return List.copyOf(comandos);
+        }
+    }
+
+    record ComandoCapturado(String sql, List<Parametro> parametros) {
+    }
+
+    record Parametro(Method setter, Object[] argumentos) {
+
+        void aplicar(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, argumentos);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return setter.getName() + Arrays.toString(argumentos);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.exemplo.consultaprodutos.repository;
+
+import com.exemplo.consultaprodutos.entity.Operador;
+import com.exemplo.consultaprodutos.entity.OperadorProduto;
+import com.exemplo.consultaprodutos.entity.Produto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração das consultas de leitura sem sessão aberta: as
+ * entidades retornadas são read-only e o lazy loading fora da transação falha.
+ *
+ * Os testes não executam dentro da transação do @DataJpaTest; cada etapa
+ * abre a sua, como fazem os serviços.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:sessao-leitura")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadOnlySessionTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private OperadorRepository operadorRepository;
+
+    @Autowired
+    private OperadorProdutoRepository operadorProdutoRepository;
+
+    private TransactionTemplate transacao;
+    private TransactionTemplate transacaoLeitura;
+
+    @BeforeEach
+    void setUp() {
+        transacao = new TransactionTemplate(transactionManager);
+        transacaoLeitura = new TransactionTemplate(transactionManager);
+        transacaoLeitura.setReadOnly(true);
+
+        transacao.executeWithoutResult(status -> {
+            Produto produto = produtoRepository.save(new Produto("Smartphone", "Smartphone Android", "SMART001",
+                    new BigDecimal("800.00"), "Eletrônicos"));
+            Operador operador = operadorRepository.save(new Operador("João Operador", "joao@operador.com", "11999999999"));
+            operadorProdutoRepository.save(new OperadorProduto(operador, produto));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transacao.executeWithoutResult(status -> {
+            operadorProdutoRepository.deleteAllInBatch();
+            produtoRepository.deleteAllInBatch();
+            operadorRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    void findByAtivoTrueOrderByNome_DeveRetornarEntidadesReadOnly_SemPersistirAlteracoes() {
+        // Given / When
+        transacao.executeWithoutResult(status -> {
+            List<Produto> produtos = produtoRepository.findByAtivoTrueOrderByNome();
+            Session sessao = entityManager.unwrap(Session.class);
+
+            assertEquals(1, produtos.size());
+            assertTrue(sessao.isReadOnly(produtos.get(0)));
+            produtos.get(0).setNome("Alterado sem save");
+        });
+
+        // Then
+        Produto recarregado = transacaoLeitura.execute(status ->
+                produtoRepository.findByCodigoAndAtivoTrue("SMART001").orElseThrow());
+        assertEquals("Smartphone", recarregado.getNome());
+    }
+
+    @Test
+    void findByCodigoAndAtivoTrue_DeveFalharNoLazyLoading_QuandoAcessadoForaDaTransacao() {
+        // Given
+        Produto produto = transacaoLeitura.execute(status ->
+                produtoRepository.findByCodigoAndAtivoTrue("SMART001").orElseThrow());
+
+        // When / Then
+        assertThrows(LazyInitializationException.class, () -> produto.getOperadorProdutos().size());
+    }
+}
@@ -0,0 +1,111 @@
+package com.exemplo.consultaprodutos.repository.jdbc;
+
+import com.exemplo.consultaprodutos.dto.response.OperadorResponseDTO;
+import com.exemplo.consultaprodutos.dto.response.ProdutoResponseDTO;
+import com.exemplo.consultaprodutos.entity.Operador;
+import com.exemplo.consultaprodutos.entity.Produto;
+import com.exemplo.consultaprodutos.mapper.OperadorMapper;
+import com.exemplo.consultaprodutos.mapper.ProdutoMapper;
+import com.exemplo.consultaprodutos.repository.OperadorRepository;
+import com.exemplo.consultaprodutos.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração que comparam os repositórios JDBC com o caminho JPA
+ * (repositório + mapper) sobre a massa de dados de db/massa-planos.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jdbc-fast-path",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/massa-planos"
+})
+@ActiveProfiles("test")
+@Import({ProdutoJdbcRepository.class, OperadorJdbcRepository.class, ProdutoMapper.class, OperadorMapper.class})
+class JdbcFastPathEquivalenceTest {
+
+    @Autowired
+    private ProdutoJdbcRepository produtoJdbcRepository;
+
+    @Autowired
+    private OperadorJdbcRepository operadorJdbcRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private OperadorRepository operadorRepository;
+
+    @Autowired
+    private ProdutoMapper produtoMapper;
+
+    @Autowired
+    private OperadorMapper operadorMapper;
+
+    private Operador operador;
+    private Produto produto;
+
+    @BeforeEach
+    void setUp() {
+        operador = operadorRepository.findByEmailAndAtivoTrue("operador0@exemplo.com").orElseThrow();
+        produto = produtoRepository.findByCodigoAndAtivoTrue("COD0000").orElseThrow();
+    }
+
+    @Test
+    void findProdutosByOperadorId_DeveRetornarOMesmoQueJpa() {
+        // When
+        List<ProdutoResponseDTO> jdbc = produtoJdbcRepository.findProdutosByOperadorId(operador.getId());
+        List<ProdutoResponseDTO> jpa = produtoMapper.toResponseDTOList(produtoRepository.findProdutosByOperadorId(operador.getId()));
+
+        // Then
+        assertFalse(jdbc.isEmpty());
+        assertEquals(jpa, jdbc);
+    }
+
+    @Test
+    void findProdutosResumoByOperadorId_DeveRetornarOMesmoQueJpa() {
+        // When
+        List<ProdutoResponseDTO> jdbc = produtoJdbcRepository.findProdutosResumoByOperadorId(operador.getId());
+        List<ProdutoResponseDTO> jpa = produtoMapper.toResponseDTOResumoList(produtoRepository.findProdutosByOperadorId(operador.getId()));
+
+        // Then
+        assertEquals(jpa, jdbc);
+    }
+
+    @Test
+    void findById_DeveRetornarProdutoComTotalDeOperadores() {
+        // When
+        ProdutoResponseDTO jdbc = produtoJdbcRepository.findById(produto.getId()).orElseThrow();
+        ProdutoResponseDTO jpa = produtoMapper.toResponseDTO(produto, produtoRepository.countOperadoresByProdutoId(produto.getId()));
+
+        // Then
+        assertEquals(jpa, jdbc);
+        assertTrue(produtoJdbcRepository.findById(-1L).isEmpty());
+    }
+
+    @Test
+    void findByCodigoEFindDistinctCategorias_DevemRetornarOMesmoQueJpa() {
+        // When / Then
+        assertEquals(produtoMapper.toResponseDTO(produto), produtoJdbcRepository.findByCodigo("COD0000").orElseThrow());
+        assertEquals(produtoRepository.findDistinctCategorias(), produtoJdbcRepository.findDistinctCategorias());
+    }
+
+    @Test
+    void operadorFindById_DeveRetornarOperadorComTotalDeProdutos() {
+        // When
+        OperadorResponseDTO jdbc = operadorJdbcRepository.findById(operador.getId()).orElseThrow();
+        OperadorResponseDTO jpa = operadorMapper.toResponseDTO(operador, operadorRepository.countProdutosByOperadorId(operador.getId()));
+
+        // Then
+        assertEquals(jpa, jdbc);
+        assertTrue(operadorJdbcRepository.existsAtivoById(operador.getId()));
+        assertFalse(operadorJdbcRepository.existsAtivoById(-1L));
+    }
+}
@@ -0,0 +1,92 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para AdaptiveConcurrencyLimiter.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long LATENCIA_BAIXA = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long LATENCIA_ALTA = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void tentarAdquirir_DeveRejeitar_QuandoLimiteAtingido() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 100, 0.5, () -> false);
+
+        // When & Then
+        assertTrue(limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL));
+        assertTrue(limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL));
+        assertFalse(limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL));
+        assertEquals(2, limiter.getEmAndamento());
+    }
+
+    @Test
+    void tentarAdquirir_DeveReservarCapacidadeParaConsultasPontuais() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 100, 0.5, () -> false);
+
+        // When
+        assertTrue(limiter.tentarAdquirir(ClasseEndpoint.LISTAGEM));
+        assertTrue(limiter.tentarAdquirir(ClasseEndpoint.LISTAGEM));
+
+        // Then
+        assertFalse(limiter.tentarAdquirir(ClasseEndpoint.LISTAGEM));
+        assertTrue(limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL));
+        assertTrue(limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL));
+    }
+
+    @Test
+    void liberar_DeveReduzirLimite_QuandoLatenciaAcimaDoAlvo() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 100, 0.5, () -> false);
+        limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL);
+
+        // When
+        limiter.liberar(LATENCIA_ALTA);
+
+        // Then
+        assertEquals(18, limiter.getLimite());
+        assertEquals(0, limiter.getEmAndamento());
+    }
+
+    @Test
+    void liberar_DeveReduzirLimite_QuandoPoolSaturado() {
+        // Given
+        AtomicBoolean poolSaturado = new AtomicBoolean(true);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, 100, 0.5, poolSaturado::get);
+        limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL);
+
+        // When
+        limiter.liberar(LATENCIA_BAIXA);
+
+        // Then
+        assertEquals(18, limiter.getLimite());
+    }
+
+    @Test
+    void liberar_DeveAumentarLimite_QuandoUtilizadoDentroDoAlvo() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 100, 0.5, () -> false);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL);
+            limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL);
+            limiter.tentarAdquirir(ClasseEndpoint.CONSULTA_PONTUAL);
+            limiter.liberar(LATENCIA_BAIXA);
+            limiter.liberar(LATENCIA_BAIXA);
+            limiter.liberar(LATENCIA_BAIXA);
+        }
+
+        // Then
+        assertTrue(limiter.getLimite() > 4);
+        assertTrue(limiter.getLimite() <= 10);
+    }
+}
@@ -0,0 +1,193 @@
+package com.exemplo.consultaprodutos.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para RequestCoalescer.
+ */
+class RequestCoalescerTest {
+
+    private static final int CHAMADORES = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry, true, 2000);
+        executor = Executors.newFixedThreadPool(CHAMADORES);
+    }
+
+    @Test
+    void executar_DeveCompartilharExecucao_QuandoChamadasConcorrentesIdenticas() throws Exception {
+        // Given
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberarExecucao = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < CHAMADORES; i++) {
+            resultados.add(executor.submit(() -> chamar("OperadorService.buscarPorId", 1L, () -> {
+                execucoes.incrementAndGet();
+                liberarExecucao.await();
+                return "operador-1";
+            })));
+        }
+        aguardarSeguidores(CHAMADORES - 1);
+        liberarExecucao.countDown();
+
+        // Then
+        for (Future<String> resultado : resultados) {
+            assertEquals("operador-1", resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, execucoes.get());
+        assertEquals((CHAMADORES - 1) / (double) CHAMADORES,
+                meterRegistry.get("coalescing.ratio").gauge().value(), 0.0001);
+    }
+
+    @Test
+    void executar_DevePropagarExcecao_ParaTodosOsChamadores() throws Exception {
+        // Given
+        CountDownLatch liberarExecucao = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < CHAMADORES; i++) {
+            resultados.add(executor.submit(() -> chamar("ProdutoService.buscarPorId", 99L, () -> {
+                liberarExecucao.await();
+                throw new RuntimeException("Produto não encontrado com ID: 99");
+            })));
+        }
+        aguardarSeguidores(CHAMADORES - 1);
+        liberarExecucao.countDown();
+
+        // Then
+        for (Future<String> resultado : resultados) {
+            Exception exception = assertThrows(Exception.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertEquals("Produto não encontrado com ID: 99", exception.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void executar_DeveRepetirNosSeguidores_QuandoLiderFalhaPeloProprioPrazo() throws Exception {
+        // Given
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberarExecucao = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < CHAMADORES; i++) {
+            resultados.add(executor.submit(() -> chamar("OperadorService.buscarPorId", 1L, () -> {
+                int execucao = execucoes.incrementAndGet();
+                liberarExecucao.await();
+                if (execucao == 1) {
+                    throw new DeadlineExceededException("consulta");
+                }
+                return "operador-1";
+            })));
+        }
+        aguardarSeguidores(CHAMADORES - 1);
+        liberarExecucao.countDown();
+
+        // Then
+        int falhas = 0;
+        for (Future<String> resultado : resultados) {
+            try {
+                assertEquals("operador-1", resultado.get(5, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                assertInstanceOf(DeadlineExceededException.class, e.getCause());
+                falhas++;
+            }
+        }
+        assertEquals(1, falhas);
+        assertTrue(execucoes.get() >= 2);
+    }
+
+    @Test
+    void executar_DeveLancarTimeout_QuandoExecucaoCompartilhadaDemora() throws Throwable {
+        // Given
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry, true, 50);
+        CountDownLatch liberarExecucao = new CountDownLatch(1);
+        Future<String> lider = executor.submit(() -> chamar("ProdutoService.listarTodos", null, () -> {
+            liberarExecucao.await();
+            return "lista";
+        }));
+        aguardarEmAndamento();
+
+        // When & Then
+        assertThrows(CoalescingTimeoutException.class,
+            () -> requestCoalescer.executar("ProdutoService.listarTodos", argumentos(null), () -> "outra"));
+
+        liberarExecucao.countDown();
+        assertEquals("lista", lider.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void executar_NaoDeveCompartilhar_QuandoArgumentosDiferentes() throws Throwable {
+        // When
+        String primeiro = requestCoalescer.executar("OperadorService.buscarPorId", argumentos(1L), () -> "operador-1");
+        String segundo = requestCoalescer.executar("OperadorService.buscarPorId", argumentos(2L), () -> "operador-2");
+
+        // Then
+        assertEquals("operador-1", primeiro);
+        assertEquals("operador-2", segundo);
+        assertEquals(0.0, meterRegistry.get("coalescing.ratio").tag("operacao", "OperadorService.buscarPorId")
+                .gauge().value());
+    }
+
+    private String chamar(String operacao, Long id, RequestCoalescer.Chamada<String> chamada) throws Exception {
+        try {
+            return requestCoalescer.executar(operacao, argumentos(id), chamada);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private List<Object> argumentos(Long id) {
+        List<Object> argumentos = new ArrayList<>();
+        argumentos.add(id);
+        return argumentos;
+    }
+
+    private void aguardarSeguidores(int esperados) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            if (meterRegistry.find("coalescing.chamadas").tag("papel", "seguidor").counter() != null
+                    && meterRegistry.get("coalescing.chamadas").tag("papel", "seguidor").counter().count() >= esperados) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("Chamadores não aguardaram a execução compartilhada");
+    }
+
+    private void aguardarEmAndamento() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            if (meterRegistry.get("coalescing.em.andamento").gauge().value() > 0) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        fail("Execução compartilhada não foi iniciada");
+    }
+}
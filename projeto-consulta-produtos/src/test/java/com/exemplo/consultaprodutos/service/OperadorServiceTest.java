@@ -9,6 +9,9 @@ import com.exemplo.consultaprodutos.mapper.OperadorMapper;
 import com.exemplo.consultaprodutos.mapper.ProdutoMapper;
 import com.exemplo.consultaprodutos.repository.OperadorRepository;
 import com.exemplo.consultaprodutos.repository.ProdutoRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.JdbcFastPath;
+import com.exemplo.consultaprodutos.repository.jdbc.OperadorJdbcRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.ProdutoJdbcRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +46,15 @@ class OperadorServiceTest {
     @Mock
     private ProdutoMapper produtoMapper;
 
+    @Mock
+    private OperadorJdbcRepository operadorJdbcRepository;
+
+    @Mock
+    private ProdutoJdbcRepository produtoJdbcRepository;
+
+    @Mock
+    private JdbcFastPath jdbcFastPath;
+
     @InjectMocks
     private OperadorService operadorService;
 
@@ -184,6 +196,29 @@ class OperadorServiceTest {
         verify(produtoMapper).toResponseDTOResumoList(produtos);
     }
 
+    @Test
+    void buscarProdutosPorOperador_DeveUsarJdbc_QuandoFastPathHabilitado() {
+        // Given
+        Long operadorId = 1L;
+        List<ProdutoResponseDTO> produtosResponseDTO = List.of(
+            new ProdutoResponseDTO(1L, "Produto A", "PRD001", new BigDecimal("100.00"), "Eletrônicos")
+        );
+
+        when(jdbcFastPath.habilitada(JdbcFastPath.Consulta.PRODUTOS_POR_OPERADOR)).thenReturn(true);
+        when(operadorJdbcRepository.existsAtivoById(operadorId)).thenReturn(true);
+        when(produtoJdbcRepository.findProdutosResumoByOperadorId(operadorId)).thenReturn(produtosResponseDTO);
+
+        // When
+        List<ProdutoResponseDTO> resultado = operadorService.buscarProdutosPorOperador(operadorId);
+
+        // Then
+        assertEquals(produtosResponseDTO, resultado);
+
+        verify(operadorRepository, never()).findById(any());
+        verify(produtoRepository, never()).findProdutosByOperadorId(any());
+        verify(produtoMapper, never()).toResponseDTOResumoList(any());
+    }
+
     @Test
     void buscarProdutosPorOperador_DeveLancarExcecao_QuandoOperadorNaoExiste() {
         // Given
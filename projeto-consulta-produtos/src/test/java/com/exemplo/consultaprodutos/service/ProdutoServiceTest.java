@@ -5,6 +5,8 @@ import com.exemplo.consultaprodutos.dto.response.ProdutoResponseDTO;
 import com.exemplo.consultaprodutos.entity.Produto;
 import com.exemplo.consultaprodutos.mapper.ProdutoMapper;
 import com.exemplo.consultaprodutos.repository.ProdutoRepository;
+import com.exemplo.consultaprodutos.repository.jdbc.JdbcFastPath;
+import com.exemplo.consultaprodutos.repository.jdbc.ProdutoJdbcRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +35,12 @@ class ProdutoServiceTest {
     @Mock
     private ProdutoMapper produtoMapper;
 
+    @Mock
+    private ProdutoJdbcRepository produtoJdbcRepository;
+
+    @Mock
+    private JdbcFastPath jdbcFastPath;
+
     @InjectMocks
     private ProdutoService produtoService;
 
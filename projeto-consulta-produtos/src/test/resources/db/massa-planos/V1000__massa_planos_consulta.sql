@@ -0,0 +1,34 @@
+-- Massa de dados do QueryPlanRegressionTest (aplicada só no banco desse teste).
+-- 200 produtos em 5 categorias (1 em cada 4 inativo), 20 operadores
+-- (1 em cada 5 inativo) e 10 associações por operador (1 em cada 3 inativa).
+
+INSERT INTO produto (data_criacao, data_atualizacao, ativo, nome, descricao, codigo, preco, categoria)
+SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, MOD(X, 4) <> 3,
+       'Produto ' || LPAD(CAST(X AS VARCHAR), 3, '0'),
+       'Descrição ' || X,
+       'COD' || LPAD(CAST(X AS VARCHAR), 4, '0'),
+       10 + X,
+       CASE MOD(X, 5)
+           WHEN 0 THEN 'Eletrônicos'
+           WHEN 1 THEN 'Móveis'
+           WHEN 2 THEN 'Papelaria'
+           WHEN 3 THEN 'Limpeza'
+           ELSE 'Alimentos'
+       END
+FROM SYSTEM_RANGE(0, 199);
+
+INSERT INTO operador (data_criacao, data_atualizacao, ativo, nome, email, telefone)
+SELECT LOCALTIMESTAMP, LOCALTIMESTAMP, MOD(X, 5) <> 4,
+       'Operador ' || LPAD(CAST(X AS VARCHAR), 2, '0'),
+       'operador' || X || '@exemplo.com',
+       '1199999' || LPAD(CAST(X AS VARCHAR), 4, '0')
+FROM SYSTEM_RANGE(0, 19);
+
+INSERT INTO operador_produto (operador_id, produto_id, data_associacao, ativo)
+SELECT o.id, p.id, DATEADD(DAY, a.X - 200, LOCALTIMESTAMP), MOD(MOD(a.X, 10), 3) <> 2
+FROM SYSTEM_RANGE(0, 199) a
+JOIN operador o ON o.email = 'operador' || (a.X / 10) || '@exemplo.com'
+JOIN produto p ON p.codigo = 'COD' || LPAD(CAST(MOD((a.X / 10) * 10 + MOD(a.X, 10) * 7, 200) AS VARCHAR), 4, '0');
+
+-- Seletividade das colunas para o otimizador, como em um banco em uso
+ANALYZE;